@@ -0,0 +1,68 @@
+package jakepalanca.circlepacker;
+
+import java.util.UUID;
+
+/**
+ * Minimal {@link Packable} used by the benchmarks.
+ */
+public class BenchmarkCircle implements Packable {
+    private final UUID id = UUID.randomUUID();
+    private double radiusRatio;
+    private double radius;
+    private double x;
+    private double y;
+
+    /**
+     * Constructs a new circle with the given radius ratio.
+     *
+     * @param radiusRatio the radius ratio
+     */
+    public BenchmarkCircle(double radiusRatio) {
+        this.radiusRatio = radiusRatio;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public double getRadiusRatio() {
+        return radiusRatio;
+    }
+
+    @Override
+    public void setRadiusRatio(double radiusRatio) {
+        this.radiusRatio = radiusRatio;
+    }
+
+    @Override
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public void setRadius(double radius) {
+        this.radius = radius;
+    }
+
+    @Override
+    public double getX() {
+        return x;
+    }
+
+    @Override
+    public void setX(double x) {
+        this.x = x;
+    }
+
+    @Override
+    public double getY() {
+        return y;
+    }
+
+    @Override
+    public void setY(double y) {
+        this.y = y;
+    }
+}
@@ -0,0 +1,60 @@
+package jakepalanca.circlepacker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Chart#optimize(int)}, which adds the cost of collecting the chart's
+ * packables to the packing itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChartBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int circleCount;
+
+    @Param({"UNIFORM", "ZIPF", "GIANT_PLUS_TINY"})
+    public RatioDistribution distribution;
+
+    @Param({"1.0", "4.0"})
+    public double aspectRatio;
+
+    @Param({"100"})
+    public int maxIterations;
+
+    private Chart chart;
+    private PackingOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        chart = new Chart(1000 * Math.sqrt(aspectRatio), 1000 / Math.sqrt(aspectRatio));
+        for (double ratio : distribution.generate(circleCount, new Random(42))) {
+            chart.addPackable(new BenchmarkCircle(ratio));
+        }
+        options = new PackingOptions();
+        options.setSeed(42L);
+    }
+
+    @Benchmark
+    public PackingResult<Packable> optimize() {
+        return chart.optimize(maxIterations, options);
+    }
+}
@@ -0,0 +1,86 @@
+package jakepalanca.circlepacker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the final overlap pass of {@link Packing} in isolation. Circles are sized as
+ * {@code packCircles} would size them and placed at random, so the pass sees a realistic mix of
+ * overlapping and separate pairs. The all-pairs variant is kept as a baseline for the
+ * grid-indexed ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int circleCount;
+
+    @Param({"UNIFORM", "ZIPF", "GIANT_PLUS_TINY"})
+    public RatioDistribution distribution;
+
+    @Param({"1.0", "4.0"})
+    public double aspectRatio;
+
+    private double[] x;
+    private double[] y;
+    private double[] r;
+    private double width;
+    private double height;
+    private final SpatialGrid grid = new SpatialGrid();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        width = 1000 * Math.sqrt(aspectRatio);
+        height = 1000 / Math.sqrt(aspectRatio);
+        Random rand = new Random(42);
+        double[] ratios = distribution.generate(circleCount, rand);
+
+        double totalRadiusRatio = 0;
+        for (double ratio : ratios) {
+            totalRadiusRatio += ratio;
+        }
+        x = new double[circleCount];
+        y = new double[circleCount];
+        r = new double[circleCount];
+        for (int i = 0; i < circleCount; i++) {
+            r[i] = Math.sqrt(ratios[i] / totalRadiusRatio * width * height * 0.8 / Math.PI);
+            x[i] = rand.nextDouble() * width;
+            y[i] = rand.nextDouble() * height;
+        }
+    }
+
+    @Benchmark
+    public double totalOverlapArea() {
+        return Packing.totalOverlapArea(x, y, r, x.length);
+    }
+
+    @Benchmark
+    public double gridOverlapArea() {
+        grid.rebuild(x, y, r, x.length, width, height);
+        return Packing.totalOverlapArea(x, y, r, grid);
+    }
+
+    @Benchmark
+    public boolean gridAnyOverlap() {
+        grid.rebuild(x, y, r, x.length, width, height);
+        return Packing.anyOverlap(x, y, r, grid);
+    }
+}
@@ -0,0 +1,99 @@
+package jakepalanca.circlepacker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link Packing#packCircles(double, double, List, int, PackingOptions)} and its
+ * {@link PackableBatch} counterpart across circle counts, ratio distributions, aspect ratios and
+ * solver configurations.
+ * <p>
+ * The rectangle always has an area of one million square units; {@code aspectRatio} is its
+ * width divided by its height. Large circle counts with the relaxation algorithm take a long
+ * time per operation, so narrow the parameters with {@code -p} when comparing a single setting.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackingBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int circleCount;
+
+    @Param({"UNIFORM", "ZIPF", "GIANT_PLUS_TINY"})
+    public RatioDistribution distribution;
+
+    @Param({"1.0", "4.0"})
+    public double aspectRatio;
+
+    @Param({"RELAXATION", "FRONT_CHAIN"})
+    public PackingAlgorithm algorithm;
+
+    @Param({"SEQUENTIAL", "PARALLEL"})
+    public SolverMode solverMode;
+
+    @Param({"GRID"})
+    public BroadPhase broadPhase;
+
+    @Param({"GEOMETRIC"})
+    public ShrinkMode shrinkMode;
+
+    @Param({"100"})
+    public int maxIterations;
+
+    private double width;
+    private double height;
+    private List<BenchmarkCircle> circles;
+    private PackableBatch batch;
+    private PackingOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        width = 1000 * Math.sqrt(aspectRatio);
+        height = 1000 / Math.sqrt(aspectRatio);
+
+        double[] ratios = distribution.generate(circleCount, new Random(42));
+        circles = new ArrayList<>(circleCount);
+        for (double ratio : ratios) {
+            circles.add(new BenchmarkCircle(ratio));
+        }
+        batch = new PackableBatch(ratios);
+
+        options = new PackingOptions();
+        options.setAlgorithm(algorithm);
+        options.setSolverMode(solverMode);
+        options.setBroadPhase(broadPhase);
+        options.setShrinkMode(shrinkMode);
+        // Same initial placement on every invocation, so scores only vary with the code under test
+        options.setSeed(42L);
+    }
+
+    @Benchmark
+    public PackingResult<Packable> packCircles() {
+        return Packing.packCircles(width, height, circles, maxIterations, options);
+    }
+
+    @Benchmark
+    public PackingResult<Packable> packBatch() {
+        return Packing.packCircles(width, height, batch, maxIterations, options);
+    }
+}
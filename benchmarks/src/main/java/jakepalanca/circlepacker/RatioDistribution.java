@@ -0,0 +1,68 @@
+package jakepalanca.circlepacker;
+
+import java.util.Random;
+
+/**
+ * Radius ratio distributions used to parameterize the benchmarks.
+ */
+public enum RatioDistribution {
+
+    /**
+     * Ratios drawn uniformly from [0.1, 1.0), like the tester app's "Random Ratios" case.
+     */
+    UNIFORM {
+        @Override
+        double[] generate(int count, Random rand) {
+            double[] ratios = new double[count];
+            for (int i = 0; i < count; i++) {
+                ratios[i] = 0.1 + rand.nextDouble() * 0.9;
+            }
+            return ratios;
+        }
+    },
+
+    /**
+     * Ratios proportional to {@code 1 / rank} in random order, a heavy-tailed mix of a few large
+     * circles and many small ones.
+     */
+    ZIPF {
+        @Override
+        double[] generate(int count, Random rand) {
+            double[] ratios = new double[count];
+            for (int i = 0; i < count; i++) {
+                ratios[i] = 1.0 / (i + 1);
+            }
+            for (int i = count - 1; i > 0; i--) {
+                int j = rand.nextInt(i + 1);
+                double swap = ratios[i];
+                ratios[i] = ratios[j];
+                ratios[j] = swap;
+            }
+            return ratios;
+        }
+    },
+
+    /**
+     * One circle holding half of the total ratio, the rest equal and tiny.
+     */
+    GIANT_PLUS_TINY {
+        @Override
+        double[] generate(int count, Random rand) {
+            double[] ratios = new double[count];
+            for (int i = 0; i < count; i++) {
+                ratios[i] = 1.0;
+            }
+            ratios[rand.nextInt(count)] = Math.max(1.0, count - 1.0);
+            return ratios;
+        }
+    };
+
+    /**
+     * Generates radius ratios for the given number of circles.
+     *
+     * @param count the number of circles
+     * @param rand  the random source
+     * @return the radius ratios
+     */
+    abstract double[] generate(int count, Random rand);
+}
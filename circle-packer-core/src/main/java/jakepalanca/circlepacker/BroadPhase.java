@@ -0,0 +1,20 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Strategy used to find candidate pairs of circles that may overlap before the exact
+ * distance test is performed.
+ */
+public enum BroadPhase {
+
+    /**
+     * Tests every pair of circles. Each sweep costs O(n²) pair tests; kept as a reference
+     * path for comparison.
+     */
+    ALL_PAIRS,
+
+    /**
+     * Buckets circles into a uniform grid that is rebuilt at the start of every sweep, so
+     * only circles sharing a grid cell are tested against each other.
+     */
+    GRID
+}
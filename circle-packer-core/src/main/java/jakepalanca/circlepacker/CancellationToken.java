@@ -0,0 +1,33 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Flag used to stop packing runs that are no longer needed, for example because the data they
+ * lay out has changed. Register it with {@link PackingOptions#setCancellationToken(CancellationToken)}
+ * and call {@link #cancel()} from any thread.
+ * <p>
+ * Cancellation is cooperative: a relaxation run checks the token, as well as the interrupt
+ * status of its thread, between sweeps and stops at the next check. The run then returns a
+ * partial result with {@link TerminationReason#CANCELLED}. A token cannot be reset, so a new one
+ * is needed for the next run.
+ * </p>
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    /**
+     * Requests that the runs using this token stop.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether {@link #cancel()} has been called.
+     *
+     * @return {@code true} once the token is cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
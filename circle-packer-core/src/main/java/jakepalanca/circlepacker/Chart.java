@@ -0,0 +1,297 @@
+package jakepalanca.circlepacker;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Represents a chart that manages packable objects (such as circles) and optimizes their placement
+ * within specified dimensions. The optimization ensures minimal overlap and efficient use of space.
+ * <p>
+ * This class provides methods to add, remove, and retrieve packable objects, as well as perform
+ * an optimization to arrange the objects within the chart dimensions using a packing algorithm.
+ * </p>
+ * <p>
+ * After a full optimization, {@link #addAndRepack(Packable, int)} and {@link #removeAndRepack(UUID)}
+ * update the layout in place, keeping existing positions and only relaxing the neighborhood
+ * of the change.
+ * </p>
+ */
+public class Chart {
+
+    /**
+     * Iteration limit of the full optimization that {@link #addAndRepack(Packable, int)} and
+     * {@link #removeAndRepack(UUID)} fall back to on a chart that has never been optimized.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+    private final double width;
+    private final double height;
+    private final Map<UUID, Packable> packables;
+
+    // Layout state for incremental updates, valid only while laidOut is true
+    private boolean laidOut;
+    private IncrementalLayout layout;
+
+    // Settings of the last full optimization, reused when an incremental update falls back to one
+    private boolean optimized;
+    private int lastMaxIterations;
+    private long lastBudgetNanos = Packing.NO_TIME_BUDGET;
+    private PackingOptions lastOptions = new PackingOptions();
+
+    /**
+     * Constructs a new Chart with the specified dimensions.
+     *
+     * @param width  the width of the chart
+     * @param height the height of the chart
+     */
+    public Chart(double width, double height) {
+        this.width = width;
+        this.height = height;
+        this.packables = new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds a packable object to the chart.
+     * Each packable object is identified by its unique ID (UUID).
+     *
+     * @param packable the packable object to add to the chart
+     * @throws IllegalArgumentException if the packable is null
+     */
+    public void addPackable(Packable packable) {
+        if (packable == null) {
+            throw new IllegalArgumentException("Packable cannot be null");
+        }
+        packables.put(packable.getId(), packable);
+        invalidateLayout();
+    }
+
+    /**
+     * Removes a packable object from the chart by its unique identifier (UUID).
+     *
+     * @param id the UUID of the packable object to remove
+     * @throws NoSuchElementException if no packable object is found with the provided UUID
+     */
+    public void removePackable(UUID id) {
+        if (!packables.containsKey(id)) {
+            throw new NoSuchElementException("Packable with UUID " + id + " not found");
+        }
+        packables.remove(id);
+        invalidateLayout();
+    }
+
+    /**
+     * Optimizes the placement of all packable objects within the chart.
+     * The optimization algorithm attempts to minimize overlap and improve the layout of the objects
+     * within the given chart dimensions.
+     *
+     * @param maxIterations the maximum number of iterations allowed for the optimization process
+     * @return a {@link PackingResult} containing details of the optimized arrangement
+     */
+    public PackingResult<Packable> optimize(int maxIterations) {
+        return optimize(maxIterations, new PackingOptions());
+    }
+
+    /**
+     * Optimizes the placement of all packable objects within the chart using the given options.
+     *
+     * @param maxIterations the maximum number of iterations allowed for the optimization process
+     * @param options       the options controlling the packing algorithm
+     * @return a {@link PackingResult} containing details of the optimized arrangement
+     * @see Packing#packCircles(double, double, List, int, PackingOptions)
+     */
+    public PackingResult<Packable> optimize(int maxIterations, PackingOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        return optimize(maxIterations, options, new PackingWorkspace());
+    }
+
+    /**
+     * Optimizes the placement of all packable objects within the chart, relaxing for as long as
+     * a time budget allows.
+     *
+     * @param timeBudget the time the optimization may take
+     * @return a {@link PackingResult} containing details of the optimized arrangement
+     * @throws IllegalArgumentException if the time budget is null or negative
+     * @see Packing#packCircles(double, double, List, Duration, PackingOptions)
+     */
+    public PackingResult<Packable> optimize(Duration timeBudget) {
+        return optimize(timeBudget, new PackingOptions());
+    }
+
+    /**
+     * Optimizes the placement of all packable objects within the chart using the given options,
+     * relaxing for as long as a time budget allows.
+     *
+     * @param timeBudget the time the optimization may take
+     * @param options    the options controlling the packing algorithm
+     * @return a {@link PackingResult} containing details of the optimized arrangement
+     * @throws IllegalArgumentException if the time budget or options are null, or the time budget
+     *                                  is negative
+     * @see Packing#packCircles(double, double, List, Duration, PackingOptions)
+     */
+    public PackingResult<Packable> optimize(Duration timeBudget, PackingOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        return optimize(Integer.MAX_VALUE, options, new PackingWorkspace(), Packing.toBudgetNanos(timeBudget));
+    }
+
+    /**
+     * Optimizes the placement of all packable objects using the scratch buffers of a workspace.
+     *
+     * @param maxIterations the maximum number of iterations allowed for the optimization process
+     * @param options       the options controlling the packing algorithm
+     * @param workspace     scratch buffers reused between runs on the same thread
+     * @return a {@link PackingResult} containing details of the optimized arrangement
+     */
+    PackingResult<Packable> optimize(int maxIterations, PackingOptions options, PackingWorkspace workspace) {
+        return optimize(maxIterations, options, workspace, Packing.NO_TIME_BUDGET);
+    }
+
+    /**
+     * Optimizes the placement of all packable objects using the scratch buffers of a workspace,
+     * within an optional time budget.
+     *
+     * @param maxIterations the maximum number of iterations allowed for the optimization process
+     * @param options       the options controlling the packing algorithm
+     * @param workspace     scratch buffers reused between runs on the same thread
+     * @param budgetNanos   the time the optimization may take, or {@link Packing#NO_TIME_BUDGET}
+     * @return a {@link PackingResult} containing details of the optimized arrangement
+     */
+    PackingResult<Packable> optimize(int maxIterations, PackingOptions options, PackingWorkspace workspace,
+                                     long budgetNanos) {
+        List<Packable> packableList = new ArrayList<>(packables.values());
+        PackingResult<Packable> result = Packing.packCircles(width, height, packableList, maxIterations, options,
+                workspace, budgetNanos);
+        invalidateLayout();
+        // A cancelled run leaves a partial layout that incremental updates must not build on
+        laidOut = !result.isCancelled();
+        optimized = true;
+        lastMaxIterations = maxIterations;
+        lastBudgetNanos = budgetNanos;
+        lastOptions = options;
+        return result;
+    }
+
+    /**
+     * Adds a packable object and fits it into the current layout without re-packing the chart.
+     * Existing objects keep their positions and radii unless they have to make room for the new
+     * one; only the neighborhood of the insertion is relaxed, for at most {@code maxIterations}
+     * rounds. The new object is sized with the same area-per-ratio scale as the current layout.
+     * <p>
+     * If the chart has not been optimized since it was last modified through
+     * {@link #addPackable(Packable)}, {@link #removePackable(UUID)} or {@link #getPackables()},
+     * this falls back to a full optimization with the iteration limit, time budget and options
+     * of the previous one, or with {@link #DEFAULT_MAX_ITERATIONS} and default options if the
+     * chart has never been optimized.
+     * </p>
+     *
+     * @param packable      the packable object to add
+     * @param maxIterations the maximum number of local relaxation rounds
+     * @return a {@link PackingResult} listing all objects; overlap figures cover the objects moved
+     *         by the update unless a full optimization was performed
+     * @throws IllegalArgumentException if the packable is null or its radius ratio is not positive
+     */
+    public PackingResult<Packable> addAndRepack(Packable packable, int maxIterations) {
+        if (packable == null) {
+            throw new IllegalArgumentException("Packable cannot be null");
+        }
+        if (packables.containsKey(packable.getId()) || !ensureLayout()) {
+            addPackable(packable);
+            return optimizeAgain();
+        }
+        PackingResult<Packable> result = layout.add(packable, maxIterations);
+        packables.put(packable.getId(), packable);
+        return result;
+    }
+
+    /**
+     * Removes a packable object from the current layout without re-packing the chart. The
+     * remaining objects keep their positions and radii.
+     * <p>
+     * If the chart has not been optimized since it was last modified outside the incremental
+     * methods, this falls back to a full optimization as described in
+     * {@link #addAndRepack(Packable, int)}.
+     * </p>
+     *
+     * @param id the UUID of the packable object to remove
+     * @return a {@link PackingResult} listing the remaining objects
+     * @throws NoSuchElementException if no packable object is found with the provided UUID
+     */
+    public PackingResult<Packable> removeAndRepack(UUID id) {
+        if (!packables.containsKey(id)) {
+            throw new NoSuchElementException("Packable with UUID " + id + " not found");
+        }
+        if (!ensureLayout()) {
+            removePackable(id);
+            return optimizeAgain();
+        }
+        PackingResult<Packable> result = layout.remove(id);
+        packables.remove(id);
+        return result;
+    }
+
+    /**
+     * Runs a full optimization with the settings of the previous one, or with the defaults if
+     * the chart has never been optimized.
+     *
+     * @return the result of the optimization
+     */
+    private PackingResult<Packable> optimizeAgain() {
+        if (!optimized) {
+            return optimize(DEFAULT_MAX_ITERATIONS, lastOptions);
+        }
+        return optimize(lastMaxIterations, lastOptions, new PackingWorkspace(), lastBudgetNanos);
+    }
+
+    /**
+     * Retrieves all the packable objects currently in the chart.
+     *
+     * @return a collection of all packable objects in the chart
+     */
+    public Collection<Packable> getPackables() {
+        return packables.values();
+    }
+
+    /**
+     * Returns the width of the chart.
+     *
+     * @return the width of the chart
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the chart.
+     *
+     * @return the height of the chart
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Makes sure the incremental layout state matches the chart contents, building it from the
+     * current positions if needed.
+     *
+     * @return {@code false} if the chart has to be fully optimized first
+     */
+    private boolean ensureLayout() {
+        // The collection returned by getPackables() can be modified directly, so check the size too
+        if (!laidOut || (layout != null && layout.size() != packables.size())) {
+            invalidateLayout();
+            return false;
+        }
+        if (layout == null) {
+            layout = IncrementalLayout.build(width, height, packables.values(), lastOptions);
+        }
+        return true;
+    }
+
+    private void invalidateLayout() {
+        laidOut = false;
+        layout = null;
+    }
+}
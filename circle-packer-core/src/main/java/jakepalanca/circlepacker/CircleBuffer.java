@@ -0,0 +1,394 @@
+package jakepalanca.circlepacker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Circles stored outside the Java heap, in a direct or memory-mapped {@link ByteBuffer}, for
+ * layouts with millions of circles.
+ * <p>
+ * The buffer holds five little-endian columns of {@code size} values each, one after the other:
+ * the radius ratios, the x-coordinates, the y-coordinates and the radii as {@code double}s, then
+ * a caller-defined {@code long} ID per circle. The layout has no header, so the column offsets
+ * depend on the circle count: a file mapped with {@link #map(Path, int)} can be reopened later,
+ * or by another process, with the same count, and a file of any other length is rejected. Use
+ * {@link LayoutFile} for a self-describing format.
+ * </p>
+ * <p>
+ * {@link Packing#packCircles(double, double, CircleBuffer, int, PackingOptions)} reads the ratios
+ * from the buffer and writes the layout back into it with bulk copies. The solver itself works on
+ * heap arrays of three {@code double}s per circle for the duration of the run; the buffer is the
+ * persistent storage. A buffer holds at most {@link #MAX_CIRCLES} circles. It is not thread-safe.
+ * </p>
+ */
+public class CircleBuffer {
+
+    /** Number of bytes used per circle. */
+    public static final int BYTES_PER_CIRCLE = 4 * Double.BYTES + Long.BYTES;
+
+    /** Largest number of circles a single buffer can hold. */
+    public static final int MAX_CIRCLES = Integer.MAX_VALUE / BYTES_PER_CIRCLE;
+
+    // Column indices, in storage order
+    static final int RATIO_COLUMN = 0;
+    static final int X_COLUMN = 1;
+    static final int Y_COLUMN = 2;
+    static final int RADIUS_COLUMN = 3;
+    static final int ID_COLUMN = 4;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final DoubleBuffer radiusRatios;
+    private final DoubleBuffer x;
+    private final DoubleBuffer y;
+    private final DoubleBuffer radii;
+    private final LongBuffer ids;
+
+    private CircleBuffer(ByteBuffer buffer, int size) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Buffer cannot be null");
+        }
+        if (size < 0 || size > MAX_CIRCLES) {
+            throw new IllegalArgumentException("Circle count must be between 0 and " + MAX_CIRCLES);
+        }
+        if (buffer.capacity() < byteSize(size)) {
+            throw new IllegalArgumentException("Buffer is too small for " + size + " circles");
+        }
+        this.buffer = buffer;
+        this.size = size;
+        this.radiusRatios = column(RATIO_COLUMN).asDoubleBuffer();
+        this.x = column(X_COLUMN).asDoubleBuffer();
+        this.y = column(Y_COLUMN).asDoubleBuffer();
+        this.radii = column(RADIUS_COLUMN).asDoubleBuffer();
+        this.ids = column(ID_COLUMN).asLongBuffer();
+    }
+
+    /**
+     * Returns the number of bytes needed to store the given number of circles.
+     *
+     * @param size the number of circles
+     * @return the buffer size in bytes
+     */
+    public static long byteSize(int size) {
+        return (long) size * BYTES_PER_CIRCLE;
+    }
+
+    /**
+     * Allocates a zeroed direct buffer for the given number of circles. The IDs are initialized
+     * to the circle indices.
+     *
+     * @param size the number of circles
+     * @return the new buffer
+     * @throws IllegalArgumentException if the size is negative or exceeds {@link #MAX_CIRCLES}
+     */
+    public static CircleBuffer allocateDirect(int size) {
+        if (size < 0 || size > MAX_CIRCLES) {
+            throw new IllegalArgumentException("Circle count must be between 0 and " + MAX_CIRCLES);
+        }
+        CircleBuffer circles = new CircleBuffer(ByteBuffer.allocateDirect((int) byteSize(size)), size);
+        for (int i = 0; i < size; i++) {
+            circles.ids.put(i, i);
+        }
+        return circles;
+    }
+
+    /**
+     * Wraps an existing buffer laid out as described above, starting at index 0. The buffer is
+     * not copied; its position, limit and byte order are ignored.
+     *
+     * @param buffer the buffer holding the circles
+     * @param size   the number of circles
+     * @return a view of the buffer
+     * @throws IllegalArgumentException if the buffer is null or too small, or the size is out of range
+     */
+    public static CircleBuffer wrap(ByteBuffer buffer, int size) {
+        return new CircleBuffer(buffer, size);
+    }
+
+    /**
+     * Maps a file holding the given number of circles into memory for reading and writing. A
+     * missing or empty file is created with that many zeroed circles, with an ID of 0. The
+     * mapping stays valid after the channel is closed and is released by the garbage collector.
+     *
+     * @param path the file to map
+     * @param size the number of circles
+     * @return a view of the mapped file
+     * @throws IOException              if the file cannot be opened or mapped, or is neither empty
+     *                                  nor exactly {@link #byteSize(int)} bytes long
+     * @throws IllegalArgumentException if the path is null or the size is out of range
+     */
+    public static CircleBuffer map(Path path, int size) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        if (size < 0 || size > MAX_CIRCLES) {
+            throw new IllegalArgumentException("Circle count must be between 0 and " + MAX_CIRCLES);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // Columns start at multiples of the size, so a different count would read shifted values
+            long fileSize = channel.size();
+            if (fileSize != 0 && fileSize != byteSize(size)) {
+                throw new IOException("File of " + fileSize + " bytes does not hold " + size + " circles: " + path);
+            }
+            return new CircleBuffer(channel.map(FileChannel.MapMode.READ_WRITE, 0, byteSize(size)), size);
+        }
+    }
+
+    /**
+     * Writes changes to a memory-mapped buffer back to its file. Does nothing for other buffers.
+     */
+    public void force() {
+        if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    /**
+     * Returns the number of circles in the buffer.
+     *
+     * @return the circle count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the underlying buffer.
+     *
+     * @return the byte buffer holding the columns
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the radius ratio of a circle.
+     *
+     * @param index the index of the circle
+     * @return its radius ratio
+     */
+    public double getRadiusRatio(int index) {
+        return radiusRatios.get(index);
+    }
+
+    /**
+     * Sets the radius ratio of a circle.
+     *
+     * @param index       the index of the circle
+     * @param radiusRatio the new radius ratio
+     */
+    public void setRadiusRatio(int index, double radiusRatio) {
+        radiusRatios.put(index, radiusRatio);
+    }
+
+    /**
+     * Copies radius ratios from an array into the buffer.
+     *
+     * @param offset       the index of the first circle to set
+     * @param radiusRatios the radius ratios to store
+     */
+    public void setRadiusRatios(int offset, double[] radiusRatios) {
+        this.radiusRatios.put(offset, radiusRatios, 0, radiusRatios.length);
+    }
+
+    /**
+     * Returns the x-coordinate of a circle's center.
+     *
+     * @param index the index of the circle
+     * @return the x-coordinate
+     */
+    public double getX(int index) {
+        return x.get(index);
+    }
+
+    /**
+     * Returns the y-coordinate of a circle's center.
+     *
+     * @param index the index of the circle
+     * @return the y-coordinate
+     */
+    public double getY(int index) {
+        return y.get(index);
+    }
+
+    /**
+     * Returns the radius of a circle.
+     *
+     * @param index the index of the circle
+     * @return the radius, or 0 if it was never laid out
+     */
+    public double getRadius(int index) {
+        return radii.get(index);
+    }
+
+    /**
+     * Returns the caller-defined ID of a circle.
+     *
+     * @param index the index of the circle
+     * @return the ID
+     */
+    public long getId(int index) {
+        return ids.get(index);
+    }
+
+    /**
+     * Sets the caller-defined ID of a circle, for example the row of the record it represents.
+     *
+     * @param index the index of the circle
+     * @param id    the new ID
+     */
+    public void setId(int index, long id) {
+        ids.put(index, id);
+    }
+
+    /**
+     * Copies the layout into caller-owned arrays.
+     *
+     * @param outX receives the x-coordinates
+     * @param outY receives the y-coordinates
+     * @param outR receives the radii
+     * @throws IllegalArgumentException if an array is null or shorter than {@link #size()}
+     */
+    public void copyLayout(double[] outX, double[] outY, double[] outR) {
+        if (outX == null || outY == null || outR == null
+                || outX.length < size || outY.length < size || outR.length < size) {
+            throw new IllegalArgumentException("Output arrays must hold every circle");
+        }
+        x.get(0, outX, 0, size);
+        y.get(0, outY, 0, size);
+        radii.get(0, outR, 0, size);
+    }
+
+    /**
+     * Copies a layout from arrays into the buffer.
+     *
+     * @param layoutX the x-coordinates
+     * @param layoutY the y-coordinates
+     * @param layoutR the radii
+     */
+    void storeLayout(double[] layoutX, double[] layoutY, double[] layoutR) {
+        x.put(0, layoutX, 0, size);
+        y.put(0, layoutY, 0, size);
+        radii.put(0, layoutR, 0, size);
+    }
+
+    /**
+     * Returns a list view of the buffer. Each call to {@link List#get(int)} returns a small
+     * {@link Packable} that reads and writes the buffer at that index; its UUID is derived from
+     * the circle's {@code long} ID. The list has a fixed size.
+     *
+     * @return a list view of the circles
+     */
+    public List<Packable> asList() {
+        return new View();
+    }
+
+    /**
+     * Returns a little-endian slice covering one column.
+     *
+     * @param column the column index, for example {@link #X_COLUMN}
+     * @return a new slice positioned at the first value of the column
+     */
+    ByteBuffer column(int column) {
+        int start = column * size * Double.BYTES;
+        return buffer.slice(start, size * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Fixed-size list whose elements are created on demand.
+     */
+    private final class View extends AbstractList<Packable> implements RandomAccess {
+        @Override
+        public Packable get(int index) {
+            return new Element(Objects.checkIndex(index, size));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Flyweight {@link Packable} backed by one index of the buffer.
+     */
+    private final class Element implements Packable {
+        private final int index;
+
+        Element(int index) {
+            this.index = index;
+        }
+
+        private CircleBuffer owner() {
+            return CircleBuffer.this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Element && ((Element) o).owner() == CircleBuffer.this && ((Element) o).index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return index;
+        }
+
+        @Override
+        public UUID getId() {
+            return new UUID(0, ids.get(index));
+        }
+
+        @Override
+        public double getRadiusRatio() {
+            return radiusRatios.get(index);
+        }
+
+        @Override
+        public void setRadiusRatio(double radiusRatio) {
+            radiusRatios.put(index, radiusRatio);
+        }
+
+        @Override
+        public double getRadius() {
+            return radii.get(index);
+        }
+
+        @Override
+        public void setRadius(double radius) {
+            radii.put(index, radius);
+        }
+
+        @Override
+        public double getX() {
+            return x.get(index);
+        }
+
+        @Override
+        public void setX(double x) {
+            CircleBuffer.this.x.put(index, x);
+        }
+
+        @Override
+        public double getY() {
+            return y.get(index);
+        }
+
+        @Override
+        public void setY(double y) {
+            CircleBuffer.this.y.put(index, y);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package jakepalanca.circlepacker;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Draws packed circles without a UI toolkit, as SVG or as a raster image, so charts can be
+ * produced on headless servers.
+ * <p>
+ * The layout rectangle is scaled uniformly to fit the image and centered in it. Circles whose
+ * radius in the image is below {@link #getMinRadius()} pixels are skipped, as are circles
+ * entirely outside the image, which keeps output small and fast for very large layouts.
+ * Colors are {@code 0xAARRGGBB} values; a fill function chooses the fill of each circle.
+ * </p>
+ * <p>
+ * SVG is streamed element by element to a {@link Writer} without building a document in
+ * memory. Raster images are drawn with Java 2D into a {@link BufferedImage} and can be
+ * encoded as PNG with {@link ImageIO}. A renderer can be reused but is not thread-safe while
+ * its settings are being changed.
+ * </p>
+ * <pre>{@code
+ * CircleRenderer renderer = new CircleRenderer(chart.getWidth(), chart.getHeight(), 800, 600);
+ * renderer.setBackground(0xFFFFFFFF);
+ * try (OutputStream out = Files.newOutputStream(Path.of("chart.png"))) {
+ *     renderer.writePng(result.getPackables(), out);
+ * }
+ * }</pre>
+ */
+public class CircleRenderer {
+
+    /** Fill used when none is set: opaque steel blue. */
+    public static final int DEFAULT_FILL = 0xFF4682B4;
+
+    private final int imageWidth;
+    private final int imageHeight;
+    private final double scale;
+    private final double offsetX;
+    private final double offsetY;
+
+    private ToIntFunction<? super Packable> fill = circle -> DEFAULT_FILL;
+    private int stroke = 0xFF000000;
+    private double strokeWidth = 1;
+    private Integer background;
+    private double minRadius = 0.5;
+
+    /**
+     * Creates a renderer mapping a layout rectangle onto an image.
+     *
+     * @param layoutWidth  the width of the rectangle the circles were packed into
+     * @param layoutHeight the height of the rectangle the circles were packed into
+     * @param imageWidth   the width of the image in pixels
+     * @param imageHeight  the height of the image in pixels
+     * @throws IllegalArgumentException if any dimension is not positive
+     */
+    public CircleRenderer(double layoutWidth, double layoutHeight, int imageWidth, int imageHeight) {
+        if (!(layoutWidth > 0) || !(layoutHeight > 0) || imageWidth <= 0 || imageHeight <= 0) {
+            throw new IllegalArgumentException("Layout and image dimensions must be positive");
+        }
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.scale = Math.min(imageWidth / layoutWidth, imageHeight / layoutHeight);
+        this.offsetX = (imageWidth - layoutWidth * scale) / 2;
+        this.offsetY = (imageHeight - layoutHeight * scale) / 2;
+    }
+
+    /**
+     * Sets the function choosing the fill color of each circle.
+     *
+     * @param fill returns an {@code 0xAARRGGBB} color for a circle
+     * @throws IllegalArgumentException if the function is null
+     */
+    public void setFill(ToIntFunction<? super Packable> fill) {
+        if (fill == null) {
+            throw new IllegalArgumentException("Fill function cannot be null");
+        }
+        this.fill = fill;
+    }
+
+    /**
+     * Returns the outline color.
+     *
+     * @return the {@code 0xAARRGGBB} outline color, opaque black by default
+     */
+    public int getStroke() {
+        return stroke;
+    }
+
+    /**
+     * Sets the outline color.
+     *
+     * @param stroke the {@code 0xAARRGGBB} outline color
+     */
+    public void setStroke(int stroke) {
+        this.stroke = stroke;
+    }
+
+    /**
+     * Returns the outline width in pixels.
+     *
+     * @return the outline width, 1 by default
+     */
+    public double getStrokeWidth() {
+        return strokeWidth;
+    }
+
+    /**
+     * Sets the outline width in pixels. Outlines are not drawn around circles whose radius is
+     * smaller than the outline width, since they would hide the fill.
+     *
+     * @param strokeWidth the outline width, or 0 for no outlines
+     * @throws IllegalArgumentException if the width is negative or not finite
+     */
+    public void setStrokeWidth(double strokeWidth) {
+        if (!(strokeWidth >= 0) || Double.isInfinite(strokeWidth)) {
+            throw new IllegalArgumentException("Stroke width must be a non-negative finite number");
+        }
+        this.strokeWidth = strokeWidth;
+    }
+
+    /**
+     * Returns the background color.
+     *
+     * @return the {@code 0xAARRGGBB} background color, or {@code null} for a transparent background
+     */
+    public Integer getBackground() {
+        return background;
+    }
+
+    /**
+     * Sets the background color.
+     *
+     * @param background the {@code 0xAARRGGBB} background color, or {@code null}, the default,
+     *                   for a transparent background
+     */
+    public void setBackground(Integer background) {
+        this.background = background;
+    }
+
+    /**
+     * Returns the radius in pixels below which circles are not drawn.
+     *
+     * @return the culling radius, half a pixel by default
+     */
+    public double getMinRadius() {
+        return minRadius;
+    }
+
+    /**
+     * Sets the radius in pixels below which circles are not drawn.
+     *
+     * @param minRadius the culling radius, or 0 to draw every circle
+     * @throws IllegalArgumentException if the radius is negative or not finite
+     */
+    public void setMinRadius(double minRadius) {
+        if (!(minRadius >= 0) || Double.isInfinite(minRadius)) {
+            throw new IllegalArgumentException("Minimum radius must be a non-negative finite number");
+        }
+        this.minRadius = minRadius;
+    }
+
+    /**
+     * Streams the circles as an SVG document encoded in UTF-8. The stream is flushed but not
+     * closed.
+     *
+     * @param circles the circles to draw
+     * @param out     the stream receiving the document
+     * @throws IOException if writing fails
+     */
+    public void writeSvg(List<? extends Packable> circles, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeSvg(circles, writer);
+        writer.flush();
+    }
+
+    /**
+     * Streams the circles as an SVG document, one element per drawn circle. The writer is
+     * neither flushed nor closed.
+     *
+     * @param circles the circles to draw
+     * @param out     the writer receiving the document
+     * @return the number of circles drawn
+     * @throws IOException if writing fails
+     */
+    public int writeSvg(List<? extends Packable> circles, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        line.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(imageWidth)
+                .append("\" height=\"").append(imageHeight)
+                .append("\" viewBox=\"0 0 ").append(imageWidth).append(' ').append(imageHeight).append("\">\n");
+        if (background != null) {
+            line.append("<rect width=\"100%\" height=\"100%\"");
+            appendPaint(line, "fill", background);
+            line.append("/>\n");
+        }
+        out.append(line);
+
+        int drawn = 0;
+        for (int i = 0; i < circles.size(); i++) {
+            Packable circle = circles.get(i);
+            double r = circle.getRadius() * scale;
+            double cx = circle.getX() * scale + offsetX;
+            double cy = circle.getY() * scale + offsetY;
+            if (isCulled(cx, cy, r)) {
+                continue;
+            }
+            line.setLength(0);
+            line.append("<circle cx=\"");
+            appendNumber(line, cx);
+            line.append("\" cy=\"");
+            appendNumber(line, cy);
+            line.append("\" r=\"");
+            appendNumber(line, r);
+            line.append('"');
+            appendPaint(line, "fill", fill.applyAsInt(circle));
+            if (isStroked(r)) {
+                appendPaint(line, "stroke", stroke);
+                line.append(" stroke-width=\"");
+                appendNumber(line, strokeWidth);
+                line.append('"');
+            }
+            line.append("/>\n");
+            out.append(line);
+            drawn++;
+        }
+        out.append("</svg>\n");
+        return drawn;
+    }
+
+    /**
+     * Draws the circles into a new ARGB image.
+     *
+     * @param circles the circles to draw
+     * @return the image
+     */
+    public BufferedImage renderImage(List<? extends Packable> circles) {
+        BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (background != null) {
+                g.setColor(new Color(background, true));
+                g.fillRect(0, 0, imageWidth, imageHeight);
+            }
+            Color strokeColor = new Color(stroke, true);
+            BasicStroke outline = new BasicStroke((float) strokeWidth);
+            Ellipse2D.Double ellipse = new Ellipse2D.Double();
+            int currentFill = 0;
+            Color fillColor = new Color(currentFill, true);
+            for (int i = 0; i < circles.size(); i++) {
+                Packable circle = circles.get(i);
+                double r = circle.getRadius() * scale;
+                double cx = circle.getX() * scale + offsetX;
+                double cy = circle.getY() * scale + offsetY;
+                if (isCulled(cx, cy, r)) {
+                    continue;
+                }
+                // Reuse the color object while consecutive circles share a fill
+                int argb = fill.applyAsInt(circle);
+                if (argb != currentFill) {
+                    currentFill = argb;
+                    fillColor = new Color(argb, true);
+                }
+                ellipse.setFrame(cx - r, cy - r, 2 * r, 2 * r);
+                g.setColor(fillColor);
+                g.fill(ellipse);
+                if (isStroked(r)) {
+                    g.setColor(strokeColor);
+                    g.setStroke(outline);
+                    g.draw(ellipse);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Draws the circles and encodes the image as PNG. The stream is not closed.
+     *
+     * @param circles the circles to draw
+     * @param out     the stream receiving the PNG data
+     * @throws IOException if encoding or writing fails
+     */
+    public void writePng(List<? extends Packable> circles, OutputStream out) throws IOException {
+        if (!ImageIO.write(renderImage(circles), "png", out)) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    /**
+     * Returns whether a circle, in image coordinates, is too small or entirely outside the image.
+     */
+    private boolean isCulled(double cx, double cy, double r) {
+        return !(r >= minRadius) || r == 0
+                || cx + r < 0 || cy + r < 0 || cx - r > imageWidth || cy - r > imageHeight;
+    }
+
+    private boolean isStroked(double r) {
+        return strokeWidth > 0 && r > strokeWidth && (stroke >>> 24) != 0;
+    }
+
+    /**
+     * Appends a color attribute, with an opacity attribute when the color is translucent.
+     */
+    private static void appendPaint(StringBuilder line, String attribute, int argb) {
+        line.append(' ').append(attribute).append("=\"#");
+        String hex = Integer.toHexString(argb & 0xFFFFFF);
+        for (int i = hex.length(); i < 6; i++) {
+            line.append('0');
+        }
+        line.append(hex).append('"');
+        int alpha = argb >>> 24;
+        if (alpha != 0xFF) {
+            line.append(' ').append(attribute).append("-opacity=\"");
+            appendNumber(line, alpha / 255.0);
+            line.append('"');
+        }
+    }
+
+    /**
+     * Appends a number rounded to two decimals, without trailing zeros.
+     */
+    private static void appendNumber(StringBuilder line, double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            line.append('-');
+            hundredths = -hundredths;
+        }
+        line.append(hundredths / 100);
+        long fraction = hundredths % 100;
+        if (fraction != 0) {
+            line.append('.').append(fraction / 10);
+            if (fraction % 10 != 0) {
+                line.append(fraction % 10);
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package jakepalanca.circlepacker;
+
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/**
+ * The smallest circle enclosing a set of circles.
+ * <p>
+ * Computed with the randomized incremental algorithm of Welzl, extended from points to circles
+ * as in d3-hierarchy: the circles are visited in a shuffled order and, whenever one is not
+ * enclosed by the current circle, the basis of at most three circles that determines the
+ * enclosing circle is extended with it and the scan restarts from the first circle. The
+ * expected running time is linear in the number of circles. The shuffle uses a fixed seed, so
+ * the result for a given input is reproducible.
+ * </p>
+ */
+public final class EnclosingCircle {
+
+    /** Relative slack with which a circle counts as enclosed, to absorb rounding. */
+    private static final double EPSILON = 1e-9;
+
+    private static final long SHUFFLE_SEED = 0x5DEECE66DL;
+
+    private final double x;
+    private final double y;
+    private final double radius;
+
+    private EnclosingCircle(double x, double y, double radius) {
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+    }
+
+    /**
+     * Computes the smallest circle enclosing the given packables, using their current positions
+     * and radii.
+     *
+     * @param circles the circles to enclose
+     * @return the enclosing circle
+     * @throws IllegalArgumentException if the collection is null or empty
+     */
+    public static EnclosingCircle of(Collection<? extends Packable> circles) {
+        if (circles == null || circles.isEmpty()) {
+            throw new IllegalArgumentException("At least one circle is required");
+        }
+        int n = circles.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] r = new double[n];
+        int i = 0;
+        for (Packable circle : circles) {
+            x[i] = circle.getX();
+            y[i] = circle.getY();
+            r[i] = circle.getRadius();
+            i++;
+        }
+        return of(x, y, r, n);
+    }
+
+    /**
+     * Computes the smallest circle enclosing the first {@code n} circles of the given arrays.
+     *
+     * @param x the x-coordinates of the centers
+     * @param y the y-coordinates of the centers
+     * @param r the radii, which must not be negative
+     * @param n the number of circles
+     * @return the enclosing circle
+     * @throws IllegalArgumentException if an array is null or shorter than {@code n}, or
+     *                                  {@code n} is not positive
+     */
+    public static EnclosingCircle of(double[] x, double[] y, double[] r, int n) {
+        if (x == null || y == null || r == null) {
+            throw new IllegalArgumentException("Circle arrays cannot be null");
+        }
+        if (n <= 0 || x.length < n || y.length < n || r.length < n) {
+            throw new IllegalArgumentException("At least one circle is required and the arrays must hold n circles");
+        }
+
+        // Visit the circles in random order for the expected linear running time
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(SHUFFLE_SEED);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        Solver solver = new Solver(x, y, r);
+        int i = 0;
+        while (i < n) {
+            int p = order[i];
+            if (solver.basisSize > 0 && enclosesWeak(solver.circle, x[p], y[p], r[p])) {
+                i++;
+            } else {
+                solver.extendBasis(p);
+                i = 0;
+            }
+        }
+        return new EnclosingCircle(solver.circle[0], solver.circle[1], solver.circle[2]);
+    }
+
+    /**
+     * Returns the x-coordinate of the center.
+     *
+     * @return the x-coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the y-coordinate of the center.
+     *
+     * @return the y-coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the radius.
+     *
+     * @return the radius
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns whether a circle lies within this one, up to a small relative tolerance.
+     *
+     * @param x      the x-coordinate of the circle's center
+     * @param y      the y-coordinate of the circle's center
+     * @param radius the radius of the circle
+     * @return {@code true} if the circle is enclosed
+     */
+    public boolean encloses(double x, double y, double radius) {
+        return enclosesWeak(new double[]{this.x, this.y, this.radius}, x, y, radius);
+    }
+
+    @Override
+    public String toString() {
+        return "EnclosingCircle{x=" + x + ", y=" + y + ", radius=" + radius + '}';
+    }
+
+    /**
+     * Returns whether circle {@code a} encloses circle {@code b}, with a little slack.
+     */
+    private static boolean enclosesWeak(double[] a, double bx, double by, double br) {
+        double dr = a[2] - br + Math.max(Math.max(a[2], br), 1) * EPSILON;
+        double dx = bx - a[0];
+        double dy = by - a[1];
+        return dr > 0 && dr * dr > dx * dx + dy * dy;
+    }
+
+    /**
+     * Returns whether circle {@code a} does not enclose circle {@code b}.
+     */
+    private static boolean enclosesNot(double[] a, double bx, double by, double br) {
+        double dr = a[2] - br;
+        double dx = bx - a[0];
+        double dy = by - a[1];
+        return dr < 0 || dr * dr < dx * dx + dy * dy;
+    }
+
+    /**
+     * The basis of at most three circles and the circle it determines.
+     */
+    private static final class Solver {
+        private final double[] x;
+        private final double[] y;
+        private final double[] r;
+        final int[] basis = new int[3];
+        int basisSize;
+        final double[] circle = new double[3];
+        private final double[] candidate = new double[3];
+        private final double[] single = new double[3];
+        private final double[] pair = new double[3];
+
+        Solver(double[] x, double[] y, double[] r) {
+            this.x = x;
+            this.y = y;
+            this.r = r;
+        }
+
+        /**
+         * Replaces the basis with the smallest basis that includes circle {@code p} and encloses
+         * the current basis, and updates the enclosing circle.
+         */
+        void extendBasis(int p) {
+            single[0] = x[p];
+            single[1] = y[p];
+            single[2] = r[p];
+            if (enclosesWeakAll(single)) {
+                setBasis(p);
+                System.arraycopy(single, 0, circle, 0, 3);
+                return;
+            }
+
+            // The basis has at least one circle here
+            for (int i = 0; i < basisSize; i++) {
+                int a = basis[i];
+                if (enclosesNot(single, x[a], y[a], r[a])) {
+                    encloseBasis2(a, p, candidate);
+                    if (enclosesWeakAll(candidate)) {
+                        setBasis(a, p);
+                        System.arraycopy(candidate, 0, circle, 0, 3);
+                        return;
+                    }
+                }
+            }
+
+            // The basis has at least two circles here
+            for (int i = 0; i < basisSize - 1; i++) {
+                for (int j = i + 1; j < basisSize; j++) {
+                    int a = basis[i];
+                    int b = basis[j];
+                    encloseBasis2(a, b, pair);
+                    if (!enclosesNot(pair, x[p], y[p], r[p])) {
+                        continue;
+                    }
+                    encloseBasis2(a, p, pair);
+                    if (!enclosesNot(pair, x[b], y[b], r[b])) {
+                        continue;
+                    }
+                    encloseBasis2(b, p, pair);
+                    if (!enclosesNot(pair, x[a], y[a], r[a])) {
+                        continue;
+                    }
+                    encloseBasis3(a, b, p, candidate);
+                    if (enclosesWeakAll(candidate)) {
+                        setBasis(a, b, p);
+                        System.arraycopy(candidate, 0, circle, 0, 3);
+                        return;
+                    }
+                }
+            }
+            throw new IllegalStateException("No enclosing basis found; the input may contain non-finite values");
+        }
+
+        private boolean enclosesWeakAll(double[] c) {
+            for (int i = 0; i < basisSize; i++) {
+                int a = basis[i];
+                if (!enclosesWeak(c, x[a], y[a], r[a])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void setBasis(int... circles) {
+            System.arraycopy(circles, 0, basis, 0, circles.length);
+            basisSize = circles.length;
+        }
+
+        /**
+         * Computes the smallest circle enclosing circles {@code a} and {@code b}.
+         */
+        private void encloseBasis2(int a, int b, double[] out) {
+            double x1 = x[a];
+            double y1 = y[a];
+            double r1 = r[a];
+            double x21 = x[b] - x1;
+            double y21 = y[b] - y1;
+            double r21 = r[b] - r1;
+            double l = Math.sqrt(x21 * x21 + y21 * y21);
+            out[0] = (x1 + x[b] + x21 / l * r21) / 2;
+            out[1] = (y1 + y[b] + y21 / l * r21) / 2;
+            out[2] = (l + r1 + r[b]) / 2;
+        }
+
+        /**
+         * Computes the circle internally tangent to circles {@code a}, {@code b} and {@code c}.
+         */
+        private void encloseBasis3(int a, int b, int c, double[] out) {
+            double x1 = x[a];
+            double y1 = y[a];
+            double r1 = r[a];
+            double x2 = x[b];
+            double y2 = y[b];
+            double r2 = r[b];
+            double x3 = x[c];
+            double y3 = y[c];
+            double r3 = r[c];
+            double a2 = x1 - x2;
+            double a3 = x1 - x3;
+            double b2 = y1 - y2;
+            double b3 = y1 - y3;
+            double c2 = r2 - r1;
+            double c3 = r3 - r1;
+            double d1 = x1 * x1 + y1 * y1 - r1 * r1;
+            double d2 = d1 - x2 * x2 - y2 * y2 + r2 * r2;
+            double d3 = d1 - x3 * x3 - y3 * y3 + r3 * r3;
+            double ab = a3 * b2 - a2 * b3;
+            double xa = (b2 * d3 - b3 * d2) / (ab * 2) - x1;
+            double xb = (b3 * c2 - b2 * c3) / ab;
+            double ya = (a3 * d2 - a2 * d3) / (ab * 2) - y1;
+            double yb = (a2 * c3 - a3 * c2) / ab;
+            double qa = xb * xb + yb * yb - 1;
+            double qb = 2 * (r1 + xa * xb + ya * yb);
+            double qc = xa * xa + ya * ya - r1 * r1;
+            double radius = -(Math.abs(qa) > 1e-6 ? (qb + Math.sqrt(qb * qb - 4 * qa * qc)) / (2 * qa) : qc / qb);
+            out[0] = x1 + xa + xb * radius;
+            out[1] = y1 + ya + yb * radius;
+            out[2] = radius;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package jakepalanca.circlepacker;
+
+import java.util.Arrays;
+
+/**
+ * Constructive circle packing using a front chain, after Wang et al., "Visualization of Large
+ * Hierarchical Data by Circle Packing" (2006), in the form used by d3-hierarchy.
+ * <p>
+ * Circles are placed largest first. Each new circle is placed tangent to two adjacent circles
+ * of the front chain (the circles on the outer boundary of the cluster). If it would intersect
+ * another circle on the chain, the chain is cut back to that circle and placement is retried;
+ * otherwise the circle is inserted into the chain and the pair of adjacent chain circles
+ * closest to the origin becomes the next placement site. The chain is stored as
+ * {@code next}/{@code prev} index arrays over the circle arrays.
+ * </p>
+ */
+final class FrontChainPacker {
+
+    /** Relative tolerance below which two circles are considered touching rather than intersecting. */
+    static final double TOLERANCE = 1e-9;
+
+    private FrontChainPacker() {
+    }
+
+    /**
+     * Places the circles around the origin without overlaps. Radii are left untouched.
+     *
+     * @param x the x-coordinates to fill in
+     * @param y the y-coordinates to fill in
+     * @param r the radii of the circles
+     * @param n the number of circles
+     */
+    static void pack(double[] x, double[] y, double[] r, int n) {
+        if (n == 0) {
+            return;
+        }
+        int[] order = largestFirst(r, n);
+        int[] next = new int[n];
+        int[] prev = new int[n];
+
+        // Place the first circle
+        int a = order[0];
+        x[a] = 0;
+        y[a] = 0;
+        if (n == 1) {
+            return;
+        }
+
+        // Place the second circle
+        int b = order[1];
+        x[a] = -r[b];
+        x[b] = r[a];
+        y[b] = 0;
+        if (n == 2) {
+            return;
+        }
+
+        // Place the third circle and initialize the front chain a -> b -> c -> a
+        int c = order[2];
+        place(x, y, r, b, a, c);
+        next[a] = b;
+        prev[b] = a;
+        next[b] = c;
+        prev[c] = b;
+        next[c] = a;
+        prev[a] = c;
+
+        pack:
+        for (int k = 3; k < n; k++) {
+            c = order[k];
+            place(x, y, r, a, b, c);
+
+            // Find the closest intersecting circle on the front chain, measured along the chain
+            int ahead = next[b];
+            int behind = prev[a];
+            double distanceAhead = r[b];
+            double distanceBehind = r[a];
+            do {
+                if (distanceAhead <= distanceBehind) {
+                    if (intersects(x, y, r, ahead, c)) {
+                        b = ahead;
+                        next[a] = b;
+                        prev[b] = a;
+                        k--;
+                        continue pack;
+                    }
+                    distanceAhead += r[ahead];
+                    ahead = next[ahead];
+                } else {
+                    if (intersects(x, y, r, behind, c)) {
+                        a = behind;
+                        next[a] = b;
+                        prev[b] = a;
+                        k--;
+                        continue pack;
+                    }
+                    distanceBehind += r[behind];
+                    behind = prev[behind];
+                }
+            } while (ahead != next[behind]);
+
+            // Insert the new circle between a and b
+            prev[c] = a;
+            next[c] = b;
+            next[a] = c;
+            prev[b] = c;
+            b = c;
+
+            // Pick the adjacent pair closest to the origin as the next placement site
+            double bestScore = score(x, y, r, a, next[a]);
+            int node = c;
+            while ((node = next[node]) != b) {
+                double nodeScore = score(x, y, r, node, next[node]);
+                if (nodeScore < bestScore) {
+                    a = node;
+                    bestScore = nodeScore;
+                }
+            }
+            b = next[a];
+        }
+    }
+
+    /**
+     * Places circle {@code c} tangent to circles {@code a} and {@code b}.
+     */
+    private static void place(double[] x, double[] y, double[] r, int b, int a, int c) {
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        double d2 = dx * dx + dy * dy;
+        if (d2 > 0) {
+            double a2 = r[a] + r[c];
+            a2 *= a2;
+            double b2 = r[b] + r[c];
+            b2 *= b2;
+            if (a2 > b2) {
+                double px = (d2 + b2 - a2) / (2 * d2);
+                double py = Math.sqrt(Math.max(0, b2 / d2 - px * px));
+                x[c] = x[b] - px * dx - py * dy;
+                y[c] = y[b] - px * dy + py * dx;
+            } else {
+                double px = (d2 + a2 - b2) / (2 * d2);
+                double py = Math.sqrt(Math.max(0, a2 / d2 - px * px));
+                x[c] = x[a] + px * dx - py * dy;
+                y[c] = y[a] + px * dy + py * dx;
+            }
+        } else {
+            x[c] = x[a] + r[c];
+            y[c] = y[a];
+        }
+    }
+
+    private static boolean intersects(double[] x, double[] y, double[] r, int a, int b) {
+        double sum = r[a] + r[b];
+        double dr = sum - sum * TOLERANCE;
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        return dr > 0 && dr * dr > dx * dx + dy * dy;
+    }
+
+    /**
+     * Squared distance from the origin to the weighted midpoint of two adjacent chain circles.
+     */
+    private static double score(double[] x, double[] y, double[] r, int a, int b) {
+        double ab = r[a] + r[b];
+        double dx = (x[a] * r[b] + x[b] * r[a]) / ab;
+        double dy = (y[a] * r[b] + y[b] * r[a]) / ab;
+        return dx * dx + dy * dy;
+    }
+
+    private static int[] largestFirst(double[] r, int n) {
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (i, j) -> Double.compare(r[j], r[i]));
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,201 @@
+package jakepalanca.circlepacker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lays out a tree of {@link PackableGroup}s, in the manner of d3-hierarchy's pack layout.
+ * <p>
+ * Leaves get a radius of {@code sqrt(radiusRatio)}, so areas are proportional to the ratios at
+ * every level. Groups are then processed bottom-up: the children of a group are packed around
+ * the origin with {@link FrontChainPacker}, the smallest circle enclosing the packed children,
+ * computed by {@link EnclosingCircle}, becomes the group's circle, and the children's positions
+ * are stored relative to its center. Finally a top-down pass scales the whole tree to fit the
+ * rectangle and turns the relative positions into absolute ones. Sibling subtrees are
+ * independent, so the bottom-up pass can run them in parallel on a fork-join pool.
+ * </p>
+ */
+final class HierarchyPacker {
+
+    private HierarchyPacker() {
+    }
+
+    /**
+     * Checks the tree, sizes its leaves and stores the radius ratio of every group.
+     *
+     * @param root the root of the tree
+     * @return every node below the root, in depth-first pre-order, the root first
+     * @throws IllegalArgumentException if a group is empty, a node appears twice or a leaf's
+     *                                  radius ratio is not positive
+     */
+    static List<Packable> prepare(PackableGroup root) {
+        List<Packable> nodes = new ArrayList<>();
+        Set<Packable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Packable> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Packable node = stack.pop();
+            if (!seen.add(node)) {
+                throw new IllegalArgumentException("A packable cannot appear twice in a hierarchy.");
+            }
+            nodes.add(node);
+            if (node instanceof PackableGroup) {
+                List<Packable> children = ((PackableGroup) node).getChildren();
+                if (children.isEmpty()) {
+                    throw new IllegalArgumentException("Groups must contain at least one child.");
+                }
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    stack.push(children.get(i));
+                }
+            } else {
+                double radiusRatio = node.getRadiusRatio();
+                if (!(radiusRatio > 0)) {
+                    throw new IllegalArgumentException("All circle radius ratios must be positive.");
+                }
+                node.setRadius(Math.sqrt(radiusRatio));
+            }
+        }
+
+        // Reverse pre-order reaches every child before its group
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            if (nodes.get(i) instanceof PackableGroup) {
+                PackableGroup group = (PackableGroup) nodes.get(i);
+                double total = 0;
+                for (Packable child : group.getChildren()) {
+                    total += child.getRadiusRatio();
+                }
+                group.setRadiusRatio(total);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Packs every group of the tree bottom-up, leaving children positioned relative to their
+     * group's center. The run is checked for cancellation before each group. With a pool, the
+     * calling thread also checks it before and after the tasks run, because the workers only see
+     * their own interrupt status.
+     *
+     * @param nodes every node of the tree in pre-order, the root first, as returned by
+     *              {@link #prepare(PackableGroup)}
+     * @param pool  the pool running sibling subtrees in parallel, or {@code null} to run on the
+     *              calling thread
+     * @param run   the run whose cancellation is checked
+     * @return {@code true} if every group was packed, {@code false} if the run was cancelled
+     */
+    static boolean packGroups(List<Packable> nodes, ForkJoinPool pool, PackingRun run) {
+        if (pool != null) {
+            if (run.isCancelled()) {
+                return false;
+            }
+            return pool.invoke(new GroupTask((PackableGroup) nodes.get(0), run)) && !run.isCancelled();
+        }
+        // Reverse pre-order packs every group after the groups below it
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            if (nodes.get(i) instanceof PackableGroup) {
+                if (run.isCancelled()) {
+                    return false;
+                }
+                packChildren((PackableGroup) nodes.get(i));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs the children of a group, whose radii are known, and sizes the group.
+     *
+     * @param group the group to lay out
+     */
+    static void packChildren(PackableGroup group) {
+        List<Packable> children = group.getChildren();
+        int n = children.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] r = new double[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = children.get(i).getRadius();
+        }
+        FrontChainPacker.pack(x, y, r, n);
+
+        EnclosingCircle circle = EnclosingCircle.of(x, y, r, n);
+        for (int i = 0; i < n; i++) {
+            Packable child = children.get(i);
+            child.setX(x[i] - circle.getX());
+            child.setY(y[i] - circle.getY());
+        }
+        group.setRadius(circle.getRadius());
+    }
+
+    /**
+     * Scales the packed tree to fit the rectangle and converts relative positions to absolute
+     * ones. Radii are reduced by a tiny relative margin so circles placed touching are not
+     * reported as overlapping because of rounding.
+     *
+     * @param nodes  every node of the tree in pre-order, the root first
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    static void placeTree(List<Packable> nodes, double width, double height) {
+        PackableGroup root = (PackableGroup) nodes.get(0);
+        double scale = Math.min(width, height) / (2 * root.getRadius());
+        double radiusScale = scale * (1 - 1000 * FrontChainPacker.TOLERANCE);
+        root.setX(width / 2);
+        root.setY(height / 2);
+
+        // Pre-order visits every group before its children
+        for (Packable node : nodes) {
+            if (node instanceof PackableGroup) {
+                for (Packable child : ((PackableGroup) node).getChildren()) {
+                    child.setX(node.getX() + child.getX() * scale);
+                    child.setY(node.getY() + child.getY() * scale);
+                }
+            }
+        }
+        for (Packable node : nodes) {
+            node.setRadius(node.getRadius() * radiusScale);
+        }
+    }
+
+    /**
+     * Packs the subtrees of a group's children in parallel, then the group itself unless the
+     * run was cancelled.
+     */
+    private static final class GroupTask extends RecursiveTask<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient PackableGroup group;
+        private final transient PackingRun run;
+
+        GroupTask(PackableGroup group, PackingRun run) {
+            this.group = group;
+            this.run = run;
+        }
+
+        @Override
+        protected Boolean compute() {
+            List<GroupTask> subtasks = new ArrayList<>();
+            for (Packable child : group.getChildren()) {
+                if (child instanceof PackableGroup) {
+                    subtasks.add(new GroupTask((PackableGroup) child, run));
+                }
+            }
+            boolean packed = true;
+            for (GroupTask subtask : invokeAll(subtasks)) {
+                packed &= subtask.join();
+            }
+            if (!packed || run.isCancelled()) {
+                return false;
+            }
+            packChildren(group);
+            return true;
+        }
+    }
+}
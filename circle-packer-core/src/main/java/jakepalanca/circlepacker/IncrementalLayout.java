@@ -0,0 +1,519 @@
+package jakepalanca.circlepacker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Persistent state of a laid-out chart that supports adding and removing single circles
+ * without re-packing the whole chart.
+ * <p>
+ * Positions and radii are kept in primitive arrays next to a uniform grid whose cells hold the
+ * indices of every circle whose bounding box touches them. Unlike {@link SpatialGrid}, this
+ * grid is updated in place whenever a circle moves, so an update only visits the cells around
+ * the circles it affects. A new circle is sized with the area-per-ratio scale of the existing
+ * layout, placed at the sampled position with the least penetration into its neighbors, and
+ * then relaxed outward: only the circles pushed in one round are examined in the next. Any
+ * overlap left when the round limit is reached is removed by shrinking just the pairs involved.
+ * </p>
+ */
+final class IncrementalLayout {
+
+    /** Number of random positions sampled when looking for free space for a new circle. */
+    private static final int PLACEMENT_SAMPLES = 32;
+
+    /** Maximum number of overlap repair passes when coincident circles had to be moved apart. */
+    private static final int MAX_REPAIR_PASSES = 8;
+
+    private final double width;
+    private final double height;
+    private final double areaPerRatio;
+    private final PackingOptions options;
+    private final SplittableRandom rand;
+    private final long salt;
+    private final SweepStats stats = new SweepStats();
+
+    private final List<Packable> packables = new ArrayList<>();
+    private final Map<UUID, Integer> indexOf = new HashMap<>();
+    private double[] x;
+    private double[] y;
+    private double[] r;
+    private int n;
+
+    // Grid cells and the cell range each circle is currently stored in
+    private final int cols;
+    private final int rows;
+    private final double cellSize;
+    private final int[][] cells;
+    private final int[] cellCounts;
+    private int[] minCol;
+    private int[] minRow;
+    private int[] maxCol;
+    private int[] maxRow;
+
+    // Marks used to deduplicate circles within a neighbor query, a relaxation round and an update
+    private int[] visitMarks;
+    private int visitMark;
+    private int[] movedMarks;
+    private int movedMark;
+    private int[] touchedMarks;
+    private int touchedMark;
+    private int[] touchedList = new int[16];
+    private int touchedCount;
+    private int[] neighbors = new int[16];
+    private int neighborCount;
+
+    private IncrementalLayout(double width, double height, Collection<Packable> circles, PackingOptions options) {
+        this.options = options;
+        this.rand = options.getSeed() == null ? new SplittableRandom() : new SplittableRandom(options.getSeed());
+        this.salt = rand.nextLong();
+        this.width = width;
+        this.height = height;
+        allocate(Math.max(16, circles.size() * 2));
+
+        double totalDiameter = 0;
+        double totalArea = 0;
+        double totalRatio = 0;
+        for (Packable circle : circles) {
+            indexOf.put(circle.getId(), n);
+            packables.add(circle);
+            x[n] = circle.getX();
+            y[n] = circle.getY();
+            r[n] = circle.getRadius();
+            totalDiameter += 2 * r[n];
+            totalArea += r[n] * r[n];
+            totalRatio += circle.getRadiusRatio();
+            n++;
+        }
+        areaPerRatio = totalArea > 0 ? totalArea / totalRatio : width * height * 0.8 / Math.PI;
+
+        // Cells sized like those of the full solver's grid
+        cellSize = SpatialGrid.cellSize(width, height, n > 0 ? totalDiameter / n : 0, n);
+        cols = SpatialGrid.cellsAcross(width, cellSize);
+        rows = SpatialGrid.cellsAcross(height, cellSize);
+        cells = new int[cols * rows][];
+        cellCounts = new int[cols * rows];
+        for (int i = 0; i < n; i++) {
+            gridInsert(i);
+        }
+    }
+
+    /**
+     * Builds the incremental state from circles whose positions and radii are already laid out.
+     *
+     * @param width   the width of the chart
+     * @param height  the height of the chart
+     * @param circles the laid-out circles
+     * @param options the options of the full optimization, providing the seed of the random
+     *                source used for placement and the listener notified of updates
+     * @return the incremental layout
+     */
+    static IncrementalLayout build(double width, double height, Collection<Packable> circles,
+                                   PackingOptions options) {
+        return new IncrementalLayout(width, height, circles, options);
+    }
+
+    /**
+     * Returns the number of circles in the layout.
+     *
+     * @return the circle count
+     */
+    int size() {
+        return n;
+    }
+
+    /**
+     * Inserts a circle into free space and relaxes its neighborhood.
+     *
+     * @param packable      the circle to insert
+     * @param maxIterations the maximum number of relaxation rounds
+     * @return the result of the update; overlap figures cover the circles touched by the update
+     * @throws IllegalArgumentException if the circle's radius ratio is not positive
+     */
+    PackingResult<Packable> add(Packable packable, int maxIterations) {
+        if (!(packable.getRadiusRatio() > 0)) {
+            throw new IllegalArgumentException("All circle radius ratios must be positive.");
+        }
+        PackingRun run = new PackingRun(false, options.getListener(), null);
+        run.start(width, height, n + 1);
+        beginUpdate();
+
+        if (n == x.length) {
+            allocate(n * 2);
+        }
+        int index = n++;
+        indexOf.put(packable.getId(), index);
+        packables.add(packable);
+        r[index] = Math.min(Math.sqrt(areaPerRatio * packable.getRadiusRatio()), Math.min(width, height) / 2);
+        placeInFreeSpace(index);
+        gridInsert(index);
+        touch(index);
+        run.endPhase(PackingPhase.INIT);
+
+        relax(index, maxIterations, run);
+        run.endPhase(PackingPhase.RELAX);
+        repairOverlaps(run);
+        run.endPhase(PackingPhase.SHRINK);
+        return finish(run);
+    }
+
+    /**
+     * Removes a circle. The remaining circles keep their positions.
+     *
+     * @param id the identifier of the circle to remove
+     * @return the result of the update
+     */
+    PackingResult<Packable> remove(UUID id) {
+        PackingRun run = new PackingRun(false, options.getListener(), null);
+        run.start(width, height, n - 1);
+        beginUpdate();
+
+        int index = indexOf.remove(id);
+        gridRemove(index);
+        int last = n - 1;
+        if (index != last) {
+            // Move the last circle into the freed slot
+            gridRemove(last);
+            x[index] = x[last];
+            y[index] = y[last];
+            r[index] = r[last];
+            Packable moved = packables.get(last);
+            packables.set(index, moved);
+            indexOf.put(moved.getId(), index);
+            gridInsert(index);
+        }
+        packables.remove(last);
+        n--;
+        run.endPhase(PackingPhase.INIT);
+        run.terminationReason = TerminationReason.NO_OVERLAPS;
+        return finish(run);
+    }
+
+    /**
+     * Places a circle at the sampled position with the least total penetration into others.
+     */
+    private void placeInFreeSpace(int index) {
+        double radius = r[index];
+        double bestX = width / 2;
+        double bestY = height / 2;
+        double bestPenetration = Double.POSITIVE_INFINITY;
+        for (int sample = 0; sample < PLACEMENT_SAMPLES && bestPenetration > 0; sample++) {
+            double cx = radius + rand.nextDouble() * Math.max(0, width - 2 * radius);
+            double cy = radius + rand.nextDouble() * Math.max(0, height - 2 * radius);
+            x[index] = cx;
+            y[index] = cy;
+            double penetration = 0;
+            int count = collectNeighbors(index);
+            for (int k = 0; k < count; k++) {
+                int j = neighbors[k];
+                double depth = radius + r[j] - Math.hypot(x[j] - cx, y[j] - cy);
+                if (depth > 0) {
+                    penetration += depth;
+                }
+            }
+            if (penetration < bestPenetration) {
+                bestPenetration = penetration;
+                bestX = cx;
+                bestY = cy;
+            }
+        }
+        x[index] = bestX;
+        y[index] = bestY;
+    }
+
+    /**
+     * Relaxes overlaps outward from a newly inserted circle. Each round examines only the
+     * circles moved in the previous round. Records the number of rounds, the termination reason
+     * and the pair counters in {@code run}.
+     */
+    private void relax(int start, int maxIterations, PackingRun run) {
+        int[] active = {start};
+        int activeCount = 1;
+        int[] next = new int[16];
+        int round = 0;
+        stats.reset();
+
+        while (round < maxIterations && activeCount > 0) {
+            movedMark++;
+            int nextCount = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int i = active[a];
+                int count = collectNeighbors(i);
+                for (int k = 0; k < count; k++) {
+                    int j = neighbors[k];
+                    if (!push(i, j)) {
+                        continue;
+                    }
+                    for (int m = 0; m < 2; m++) {
+                        int moved = m == 0 ? i : j;
+                        touch(moved);
+                        if (movedMarks[moved] != movedMark) {
+                            movedMarks[moved] = movedMark;
+                            if (nextCount == next.length) {
+                                next = Arrays.copyOf(next, nextCount * 2);
+                            }
+                            next[nextCount++] = moved;
+                        }
+                    }
+                }
+            }
+            int[] previous = active;
+            active = next;
+            next = previous.length >= 16 ? previous : new int[16];
+            activeCount = nextCount;
+            round++;
+        }
+        run.pairTests += stats.pairTests;
+        run.overlapsResolved += stats.overlapCount;
+        run.iterations = round;
+        run.terminationReason = activeCount == 0 ? TerminationReason.NO_OVERLAPS : TerminationReason.MAX_ITERATIONS;
+    }
+
+    /**
+     * Pushes two circles apart if they overlap, with the pair resolution of the full solver,
+     * and moves them to their new grid cells.
+     *
+     * @return {@code true} if the circles overlapped
+     */
+    private boolean push(int i, int j) {
+        if (!Packing.resolveOverlap(x, y, r, i, j, width, height, rand, stats)) {
+            return false;
+        }
+        regrid(i);
+        regrid(j);
+        return true;
+    }
+
+    /**
+     * Shrinks both circles of every pair touched by the update that still overlaps. Coincident
+     * circles cannot be separated by shrinking, so they are first moved apart, and the pass is
+     * repeated while circles had to move, since they may now overlap neighbors examined earlier.
+     */
+    private void repairOverlaps(PackingRun run) {
+        boolean moved = true;
+        for (int pass = 0; moved && pass < MAX_REPAIR_PASSES; pass++) {
+            moved = repairPass(run);
+        }
+    }
+
+    /**
+     * Runs one repair pass over the touched circles.
+     *
+     * @return {@code true} if coincident circles were moved apart
+     */
+    private boolean repairPass(PackingRun run) {
+        boolean moved = false;
+        for (int t = 0; t < touchedCount; t++) {
+            int i = touchedList[t];
+            int count = collectNeighbors(i);
+            for (int k = 0; k < count; k++) {
+                int j = neighbors[k];
+                double minDistance = r[i] + r[j];
+                double distance = Math.hypot(x[j] - x[i], y[j] - y[i]);
+                if (distance == 0 && minDistance > 0) {
+                    separate(i, j);
+                    touch(j);
+                    run.overlapsResolved++;
+                    moved = true;
+                    distance = Math.hypot(x[j] - x[i], y[j] - y[i]);
+                }
+                if (distance < minDistance && distance > 0) {
+                    double scale = distance / minDistance * (1 - 1e-12);
+                    r[i] *= scale;
+                    r[j] *= scale;
+                    run.radiusAdjustments += 2;
+                    gridRemove(j);
+                    gridInsert(j);
+                    touch(j);
+                }
+            }
+            gridRemove(i);
+            gridInsert(i);
+        }
+        return moved;
+    }
+
+    /**
+     * Moves circle {@code j} off coincident circle {@code i} until they touch, along the
+     * direction the parallel solver would use for the pair, so that repairs are reproducible.
+     * If the rectangle stops it, {@code i} is moved the opposite way instead.
+     */
+    private void separate(int i, int j) {
+        double angle = ParallelSolver.separationAngle(Math.min(i, j), Math.max(i, j), salt, 0);
+        double dx = Math.cos(angle) * (r[i] + r[j]);
+        double dy = Math.sin(angle) * (r[i] + r[j]);
+        moveTo(j, x[j] + dx, y[j] + dy);
+        if (x[j] == x[i] && y[j] == y[i]) {
+            moveTo(i, x[i] - dx, y[i] - dy);
+            touch(i);
+        }
+    }
+
+    /**
+     * Writes touched circles back to their packables and reports overlaps among them. Both
+     * happen in one loop, whose time is charged to {@link PackingPhase#VERIFY}.
+     */
+    private PackingResult<Packable> finish(PackingRun run) {
+        boolean overlapsExist = false;
+        double totalOverlapArea = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int i = touchedList[t];
+            int count = collectNeighbors(i);
+            for (int k = 0; k < count; k++) {
+                int j = neighbors[k];
+                // Count each touched pair once
+                if (touchedMarks[j] == touchedMark && j < i) {
+                    continue;
+                }
+                double overlapArea = Packing.calculateOverlapArea(x[i], y[i], r[i], x[j], y[j], r[j]);
+                if (overlapArea > 0) {
+                    overlapsExist = true;
+                    totalOverlapArea += overlapArea;
+                }
+            }
+
+            Packable circle = packables.get(i);
+            circle.setRadius(r[i]);
+            circle.setX(x[i]);
+            circle.setY(y[i]);
+        }
+
+        run.endPhase(PackingPhase.VERIFY);
+
+        PackingMetrics metrics = run.metrics();
+        return run.complete(new PackingResult<>(new ArrayList<>(packables), metrics.getTotalNanos() / 1_000_000,
+                run.iterations, overlapsExist, totalOverlapArea, run.adjustmentsMade(), run.terminationReason,
+                run.trace(), metrics));
+    }
+
+    private void beginUpdate() {
+        touchedMark++;
+        touchedCount = 0;
+    }
+
+    private void touch(int i) {
+        if (touchedMarks[i] != touchedMark) {
+            touchedMarks[i] = touchedMark;
+            if (touchedCount == touchedList.length) {
+                touchedList = Arrays.copyOf(touchedList, touchedCount * 2);
+            }
+            touchedList[touchedCount++] = i;
+        }
+    }
+
+    /**
+     * Collects the distinct circles sharing a grid cell with circle {@code i} into
+     * {@link #neighbors}, using the position and radius currently stored in the arrays.
+     *
+     * @return the number of neighbors found
+     */
+    private int collectNeighbors(int i) {
+        visitMark++;
+        visitMarks[i] = visitMark;
+        neighborCount = 0;
+        int fromCol = col(x[i] - r[i]);
+        int toCol = col(x[i] + r[i]);
+        int fromRow = row(y[i] - r[i]);
+        int toRow = row(y[i] + r[i]);
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int col = fromCol; col <= toCol; col++) {
+                int cell = row * cols + col;
+                int[] items = cells[cell];
+                for (int k = 0; k < cellCounts[cell]; k++) {
+                    int j = items[k];
+                    if (visitMarks[j] != visitMark) {
+                        visitMarks[j] = visitMark;
+                        if (neighborCount == neighbors.length) {
+                            neighbors = Arrays.copyOf(neighbors, neighborCount * 2);
+                        }
+                        neighbors[neighborCount++] = j;
+                    }
+                }
+            }
+        }
+        return neighborCount;
+    }
+
+    private void moveTo(int i, double newX, double newY) {
+        double radius = r[i];
+        x[i] = Math.max(radius, Math.min(newX, width - radius));
+        y[i] = Math.max(radius, Math.min(newY, height - radius));
+        regrid(i);
+    }
+
+    /**
+     * Moves circle {@code i} to the cells covered by its current position, if they changed.
+     */
+    private void regrid(int i) {
+        double radius = r[i];
+        if (col(x[i] - radius) != minCol[i] || col(x[i] + radius) != maxCol[i]
+                || row(y[i] - radius) != minRow[i] || row(y[i] + radius) != maxRow[i]) {
+            gridRemove(i);
+            gridInsert(i);
+        }
+    }
+
+    private void gridInsert(int i) {
+        minCol[i] = col(x[i] - r[i]);
+        maxCol[i] = col(x[i] + r[i]);
+        minRow[i] = row(y[i] - r[i]);
+        maxRow[i] = row(y[i] + r[i]);
+        for (int row = minRow[i]; row <= maxRow[i]; row++) {
+            for (int col = minCol[i]; col <= maxCol[i]; col++) {
+                int cell = row * cols + col;
+                int[] items = cells[cell];
+                if (items == null) {
+                    items = cells[cell] = new int[4];
+                } else if (cellCounts[cell] == items.length) {
+                    items = cells[cell] = Arrays.copyOf(items, items.length * 2);
+                }
+                items[cellCounts[cell]++] = i;
+            }
+        }
+    }
+
+    private void gridRemove(int i) {
+        for (int row = minRow[i]; row <= maxRow[i]; row++) {
+            for (int col = minCol[i]; col <= maxCol[i]; col++) {
+                int cell = row * cols + col;
+                int[] items = cells[cell];
+                int count = cellCounts[cell];
+                for (int k = 0; k < count; k++) {
+                    if (items[k] == i) {
+                        items[k] = items[count - 1];
+                        cellCounts[cell] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private int col(double value) {
+        int c = (int) Math.floor(value / cellSize);
+        return Math.max(0, Math.min(c, cols - 1));
+    }
+
+    private int row(double value) {
+        int rr = (int) Math.floor(value / cellSize);
+        return Math.max(0, Math.min(rr, rows - 1));
+    }
+
+    private void allocate(int capacity) {
+        x = x == null ? new double[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new double[capacity] : Arrays.copyOf(y, capacity);
+        r = r == null ? new double[capacity] : Arrays.copyOf(r, capacity);
+        minCol = minCol == null ? new int[capacity] : Arrays.copyOf(minCol, capacity);
+        minRow = minRow == null ? new int[capacity] : Arrays.copyOf(minRow, capacity);
+        maxCol = maxCol == null ? new int[capacity] : Arrays.copyOf(maxCol, capacity);
+        maxRow = maxRow == null ? new int[capacity] : Arrays.copyOf(maxRow, capacity);
+        visitMarks = visitMarks == null ? new int[capacity] : Arrays.copyOf(visitMarks, capacity);
+        movedMarks = movedMarks == null ? new int[capacity] : Arrays.copyOf(movedMarks, capacity);
+        touchedMarks = touchedMarks == null ? new int[capacity] : Arrays.copyOf(touchedMarks, capacity);
+    }
+}
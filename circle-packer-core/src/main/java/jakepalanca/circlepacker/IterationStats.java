@@ -0,0 +1,86 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Measurements taken during a single relaxation sweep. A list of these is available from
+ * {@link PackingResult#getTrace()} when {@link PackingOptions#isTraceEnabled()} is set.
+ */
+public final class IterationStats {
+
+    private final int iteration;
+    private final int overlapCount;
+    private final double totalOverlap;
+    private final double maxDisplacement;
+    private final long elapsedNanos;
+
+    /**
+     * Constructs the measurements of one sweep.
+     *
+     * @param iteration       the one-based index of the sweep
+     * @param overlapCount    the number of overlapping pairs found during the sweep
+     * @param totalOverlap    the summed penetration depth of those pairs
+     * @param maxDisplacement the length of the largest push applied to a circle during the sweep
+     * @param elapsedNanos    the time since relaxation started, in nanoseconds, at the end of the sweep
+     */
+    public IterationStats(int iteration, int overlapCount, double totalOverlap, double maxDisplacement,
+                          long elapsedNanos) {
+        this.iteration = iteration;
+        this.overlapCount = overlapCount;
+        this.totalOverlap = totalOverlap;
+        this.maxDisplacement = maxDisplacement;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the one-based index of the sweep.
+     *
+     * @return the iteration number
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Returns the number of overlapping pairs found during the sweep.
+     *
+     * @return the overlap count
+     */
+    public int getOverlapCount() {
+        return overlapCount;
+    }
+
+    /**
+     * Returns the summed penetration depth ({@code r1 + r2 - d}) of the overlapping pairs,
+     * measured when each pair was visited.
+     *
+     * @return the total overlap depth
+     */
+    public double getTotalOverlap() {
+        return totalOverlap;
+    }
+
+    /**
+     * Returns the length of the largest push applied to a circle during the sweep, before
+     * clamping to the rectangle.
+     *
+     * @return the maximum displacement
+     */
+    public double getMaxDisplacement() {
+        return maxDisplacement;
+    }
+
+    /**
+     * Returns the time elapsed since relaxation started, measured at the end of the sweep.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "IterationStats{iteration=" + iteration + ", overlapCount=" + overlapCount
+                + ", totalOverlap=" + totalOverlap + ", maxDisplacement=" + maxDisplacement
+                + ", elapsedNanos=" + elapsedNanos + '}';
+    }
+}
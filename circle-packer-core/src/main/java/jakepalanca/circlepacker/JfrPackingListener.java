@@ -0,0 +1,200 @@
+package jakepalanca.circlepacker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * {@link PackingListener} that emits Java Flight Recorder events, so packing can be profiled in
+ * production with the JDK's own tooling and no extra dependency.
+ * <p>
+ * Three event types are defined under the "Circle Packer" category:
+ * </p>
+ * <ul>
+ *     <li>{@value #RUN_EVENT}, spanning a whole run, with its size, iteration count,
+ *     termination reason and residual overlap;</li>
+ *     <li>{@value #PHASE_EVENT}, spanning each {@link PackingPhase} of a run;</li>
+ *     <li>{@value #ITERATION_EVENT}, an instant event with the measurements of a relaxation
+ *     sweep. It is disabled by default because of its volume.</li>
+ * </ul>
+ * <p>
+ * The events are only filled in and committed while a recording has them enabled, so a
+ * registered listener costs little when no recording is running. One instance can be shared by
+ * runs on several threads.
+ * </p>
+ * <pre>{@code
+ * options.setListener(new JfrPackingListener());
+ * // java -XX:StartFlightRecording:filename=packing.jfr ...
+ * }</pre>
+ */
+public class JfrPackingListener implements PackingListener {
+
+    /** Name of the event spanning a whole packing run. */
+    public static final String RUN_EVENT = "jakepalanca.circlepacker.PackingRun";
+
+    /** Name of the event spanning one phase of a packing run. */
+    public static final String PHASE_EVENT = "jakepalanca.circlepacker.PackingPhase";
+
+    /** Name of the event recorded after relaxation sweeps. */
+    public static final String ITERATION_EVENT = "jakepalanca.circlepacker.PackingIteration";
+
+    private final int iterationInterval;
+    private final ThreadLocal<RunEvents> current = new ThreadLocal<>();
+
+    /**
+     * Creates a listener that reports every relaxation sweep.
+     */
+    public JfrPackingListener() {
+        this(1);
+    }
+
+    /**
+     * Creates a listener that reports every {@code iterationInterval}-th relaxation sweep.
+     *
+     * @param iterationInterval the sweep interval of iteration events, or 0 to emit none
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public JfrPackingListener(int iterationInterval) {
+        if (iterationInterval < 0) {
+            throw new IllegalArgumentException("Iteration interval cannot be negative");
+        }
+        this.iterationInterval = iterationInterval;
+    }
+
+    @Override
+    public int getIterationInterval() {
+        return iterationInterval;
+    }
+
+    @Override
+    public void onStart(double width, double height, int circleCount) {
+        RunEvents events = new RunEvents();
+        events.run.width = width;
+        events.run.height = height;
+        events.run.circleCount = circleCount;
+        events.run.begin();
+        events.phase.begin();
+        current.set(events);
+    }
+
+    @Override
+    public void onPhaseEnd(PackingPhase phase, long nanos) {
+        RunEvents events = current.get();
+        if (events == null) {
+            return;
+        }
+        PhaseEvent event = events.phase;
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.commit();
+        }
+        events.phase = new PhaseEvent();
+        events.phase.begin();
+    }
+
+    @Override
+    public void onIteration(IterationStats stats) {
+        IterationEvent event = new IterationEvent();
+        if (event.shouldCommit()) {
+            event.iteration = stats.getIteration();
+            event.overlapCount = stats.getOverlapCount();
+            event.totalOverlap = stats.getTotalOverlap();
+            event.maxDisplacement = stats.getMaxDisplacement();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onComplete(PackingResult<Packable> result) {
+        RunEvents events = current.get();
+        if (events == null) {
+            return;
+        }
+        current.remove();
+        RunEvent event = events.run;
+        event.end();
+        if (event.shouldCommit()) {
+            event.iterations = result.getIterations();
+            event.terminationReason = result.getTerminationReason() != null
+                    ? result.getTerminationReason().name() : null;
+            event.overlapsExist = result.isOverlapsExist();
+            event.totalOverlapArea = result.getTotalOverlapArea();
+            event.adjustmentsMade = result.getAdjustmentsMade();
+            event.pairTests = result.getMetrics().getPairTests();
+            event.commit();
+        }
+    }
+
+    /**
+     * Events of the run in progress on one thread.
+     */
+    private static final class RunEvents {
+        final RunEvent run = new RunEvent();
+        PhaseEvent phase = new PhaseEvent();
+    }
+
+    @Name(RUN_EVENT)
+    @Label("Packing Run")
+    @Category("Circle Packer")
+    @Description("A complete circle packing run")
+    static final class RunEvent extends Event {
+        @Label("Width")
+        double width;
+
+        @Label("Height")
+        double height;
+
+        @Label("Circle Count")
+        int circleCount;
+
+        @Label("Iterations")
+        int iterations;
+
+        @Label("Termination Reason")
+        String terminationReason;
+
+        @Label("Overlaps Exist")
+        boolean overlapsExist;
+
+        @Label("Total Overlap Area")
+        double totalOverlapArea;
+
+        @Label("Adjustments Made")
+        int adjustmentsMade;
+
+        @Label("Pair Tests")
+        long pairTests;
+    }
+
+    @Name(PHASE_EVENT)
+    @Label("Packing Phase")
+    @Category("Circle Packer")
+    @Description("One phase of a circle packing run")
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name(ITERATION_EVENT)
+    @Label("Packing Iteration")
+    @Category("Circle Packer")
+    @Description("Measurements of one relaxation sweep")
+    @Enabled(false)
+    static final class IterationEvent extends Event {
+        @Label("Iteration")
+        int iteration;
+
+        @Label("Overlap Count")
+        int overlapCount;
+
+        @Label("Total Overlap")
+        double totalOverlap;
+
+        @Label("Max Displacement")
+        double maxDisplacement;
+    }
+}
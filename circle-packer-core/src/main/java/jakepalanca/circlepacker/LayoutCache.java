@@ -0,0 +1,322 @@
+package jakepalanca.circlepacker;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded least-recently-used cache of finished layouts, shared by the packing runs whose
+ * {@link PackingOptions#getLayoutCache()} refers to it.
+ * <p>
+ * Layouts are keyed by the rectangle dimensions, the iteration limit, the options that affect
+ * the layout and the sorted multiset of radius ratios, each rounded to
+ * {@value #RATIO_MANTISSA_BITS} mantissa bits. The identity and order of the packables do not
+ * matter: on a hit, the cached circles are assigned to the caller's packables in order of
+ * increasing radius ratio, so two charts that only differ in their {@link java.util.UUID}s get
+ * the same layout. Warm-started runs depend on the previous positions and time-budgeted runs
+ * on the speed of the machine, so both bypass the cache.
+ * </p>
+ * <p>
+ * The cache is thread-safe and can be shared by the charts of a {@link PackingExecutor}. A
+ * layout is computed outside the lock, so concurrent misses on the same key may both compute it.
+ * </p>
+ */
+public class LayoutCache {
+
+    /** Number of mantissa bits kept when radius ratios are quantized for the key. */
+    static final int RATIO_MANTISSA_BITS = 32;
+
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a cache holding at most the given number of layouts.
+     *
+     * @param maxEntries the maximum number of cached layouts
+     * @throws IllegalArgumentException if the maximum is not positive
+     */
+    public LayoutCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Maximum entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > LayoutCache.this.maxEntries) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the maximum number of cached layouts.
+     *
+     * @return the capacity
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the number of cached layouts.
+     *
+     * @return the current size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of runs answered from the cache.
+     *
+     * @return the hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of runs that had to compute their layout.
+     *
+     * @return the miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of layouts dropped to stay within the capacity.
+     *
+     * @return the eviction count
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the fraction of lookups that were hits.
+     *
+     * @return the hit rate, or 0 if there were no lookups
+     */
+    public synchronized double getHitRate() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Removes every cached layout. The hit, miss and eviction counts are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Builds the key of a run and looks it up, counting a hit or a miss.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param circles       the circles to pack
+     * @param maxIterations the iteration limit
+     * @param options       the packing options
+     * @return the lookup, holding the cached layout on a hit
+     * @throws IllegalArgumentException if any circle's radius ratio is non-positive
+     */
+    Lookup lookup(double width, double height, PackingTarget circles, int maxIterations, PackingOptions options) {
+        int n = circles.size();
+        long[] ratios = new long[n];
+        for (int i = 0; i < n; i++) {
+            double radiusRatio = circles.radiusRatio(i);
+            if (radiusRatio <= 0) {
+                throw new IllegalArgumentException("All circle radius ratios must be positive.");
+            }
+            // Positive doubles order like their bit patterns
+            ratios[i] = quantize(radiusRatio);
+        }
+
+        long[] sortedRatios = ratios.clone();
+        Arrays.sort(sortedRatios);
+
+        // Sort circle indices by quantized ratio, breaking ties by index. A search of the sorted
+        // ratios gives equal ratios the same rank, which is packed above the index.
+        long[] ranked = new long[n];
+        for (int i = 0; i < n; i++) {
+            ranked[i] = (long) Arrays.binarySearch(sortedRatios, ratios[i]) << 32 | i;
+        }
+        Arrays.sort(ranked);
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = (int) ranked[k];
+        }
+
+        Key key = new Key(width, height, maxIterations, options, sortedRatios);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        return new Lookup(key, order, entry);
+    }
+
+    /**
+     * Assigns the cached layout of a hit to the caller's circles, in order of increasing radius
+     * ratio.
+     *
+     * @param lookup  the lookup that hit
+     * @param circles the circles to lay out
+     * @param run     the state of the run, whose clock started before the lookup
+     * @return the result of the run, with the iterations, overlap figures and trace of the run
+     *         that computed the layout and the timings of this one
+     */
+    PackingResult<Packable> apply(Lookup lookup, PackingTarget circles, PackingRun run) {
+        Entry entry = lookup.entry;
+        int n = lookup.order.length;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] r = new double[n];
+        for (int k = 0; k < n; k++) {
+            int i = lookup.order[k];
+            x[i] = entry.layout[3 * k];
+            y[i] = entry.layout[3 * k + 1];
+            r[i] = entry.layout[3 * k + 2];
+        }
+        run.endPhase(PackingPhase.INIT);
+        circles.write(x, y, r);
+        run.endPhase(PackingPhase.WRITE_BACK);
+        PackingMetrics metrics = run.metrics();
+        return run.complete(new PackingResult<>(circles.packables(), metrics.getTotalNanos() / 1_000_000,
+                entry.iterations, entry.overlapsExist, entry.totalOverlapArea, entry.adjustmentsMade,
+                entry.terminationReason, entry.trace, metrics));
+    }
+
+    /**
+     * Stores a computed layout under the key of a lookup.
+     *
+     * @param lookup the lookup that missed
+     * @param x      the x-coordinates of the circles, indexed like the packables
+     * @param y      the y-coordinates of the circles, indexed like the packables
+     * @param r      the radii of the circles, indexed like the packables
+     * @param result the result of the run
+     */
+    void store(Lookup lookup, double[] x, double[] y, double[] r, PackingResult<Packable> result) {
+        int n = lookup.order.length;
+        double[] layout = new double[3 * n];
+        for (int k = 0; k < n; k++) {
+            int i = lookup.order[k];
+            layout[3 * k] = x[i];
+            layout[3 * k + 1] = y[i];
+            layout[3 * k + 2] = r[i];
+        }
+        Entry entry = new Entry(layout, result);
+        synchronized (this) {
+            entries.put(lookup.key, entry);
+        }
+    }
+
+    /**
+     * Rounds a positive ratio to {@link #RATIO_MANTISSA_BITS} mantissa bits and returns the
+     * bit pattern of the result.
+     */
+    private static long quantize(double ratio) {
+        int dropped = 52 - RATIO_MANTISSA_BITS;
+        long bits = Double.doubleToLongBits(ratio) + (1L << (dropped - 1));
+        return bits & -(1L << dropped);
+    }
+
+    /**
+     * Canonical description of a packing run.
+     */
+    private static final class Key {
+        private final double width;
+        private final double height;
+        private final int maxIterations;
+        private final List<Object> settings;
+        private final long[] ratios;
+        private final int hash;
+
+        Key(double width, double height, int maxIterations, PackingOptions options, long[] ratios) {
+            this.width = width;
+            this.height = height;
+            this.maxIterations = maxIterations;
+            this.settings = Arrays.asList(options.getAlgorithm(), options.getBroadPhase(), options.getSolverMode(),
+                    options.getShrinkMode(), options.getDisplacementTolerance(), options.getOverlapTolerance(),
+                    options.getStallSweeps(), options.isTraceEnabled(), options.isOverlapAreaComputed(),
+                    options.getSeed());
+            this.ratios = ratios;
+            this.hash = Objects.hash(width, height, maxIterations, settings, Arrays.hashCode(ratios));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && Double.compare(width, other.width) == 0
+                    && Double.compare(height, other.height) == 0
+                    && maxIterations == other.maxIterations
+                    && settings.equals(other.settings)
+                    && Arrays.equals(ratios, other.ratios);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A cached layout as {@code x, y, r} triples in order of increasing radius ratio, with the
+     * figures of the run that computed it. The packables of that run are not retained.
+     */
+    static final class Entry {
+        final double[] layout;
+        final int iterations;
+        final boolean overlapsExist;
+        final double totalOverlapArea;
+        final int adjustmentsMade;
+        final TerminationReason terminationReason;
+        final List<IterationStats> trace;
+
+        Entry(double[] layout, PackingResult<Packable> result) {
+            this.layout = layout;
+            this.iterations = result.getIterations();
+            this.overlapsExist = result.isOverlapsExist();
+            this.totalOverlapArea = result.getTotalOverlapArea();
+            this.adjustmentsMade = result.getAdjustmentsMade();
+            this.terminationReason = result.getTerminationReason();
+            this.trace = result.getTrace();
+        }
+    }
+
+    /**
+     * The key of a run, the order of its circles by radius ratio and the cached layout on a hit.
+     */
+    static final class Lookup {
+        final Key key;
+        final int[] order;
+        final Entry entry;
+
+        Lookup(Key key, int[] order, Entry entry) {
+            this.key = key;
+            this.order = order;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package jakepalanca.circlepacker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary persistence of layouts.
+ * <p>
+ * A layout file starts with a 16-byte header: the magic number {@value #MAGIC} as an
+ * {@code int}, the format version and the {@link LayoutFormat} ordinal as {@code short}s, the
+ * number of circles as an {@code int} and four reserved bytes. It is followed by
+ * {@value #RECORD_BYTES} bytes per circle: the most and least significant bits of its ID as
+ * {@code long}s and its x, y, radius and radius ratio as {@code double}s, either as one record
+ * per circle ({@link LayoutFormat#ROW}) or as one column per field ({@link LayoutFormat#COLUMNAR}).
+ * All values are little-endian.
+ * </p>
+ * <p>
+ * {@link #write(Path, List, LayoutFormat)} streams a layout through a small reusable buffer
+ * without allocating per circle; its overloads for {@link PackableBatch} and
+ * {@link CircleBuffer} copy straight from their arrays and columns. {@link #map(Path)} maps a
+ * file into memory and returns a view that reads fields in place, so a renderer can load a
+ * persisted layout without parsing it. Mapped files are limited to 2 GB, about 44 million
+ * circles.
+ * </p>
+ */
+public final class LayoutFile {
+
+    /** Magic number at the start of every layout file, "CPLT" in ASCII. */
+    public static final int MAGIC = 0x43504C54;
+
+    /** Version of the format written by this class. */
+    public static final short VERSION = 1;
+
+    /** Size of the file header in bytes. */
+    public static final int HEADER_BYTES = 16;
+
+    /** Number of bytes stored per circle. */
+    public static final int RECORD_BYTES = 2 * Long.BYTES + 4 * Double.BYTES;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    // Field indices, in record order
+    private static final int ID_MOST = 0;
+    private static final int ID_LEAST = 1;
+    private static final int X = 2;
+    private static final int Y = 3;
+    private static final int RADIUS = 4;
+    private static final int RATIO = 5;
+    private static final int FIELDS = 6;
+
+    private final ByteBuffer buffer;
+    private final LayoutFormat format;
+    private final int size;
+
+    private LayoutFile(ByteBuffer buffer, LayoutFormat format, int size) {
+        this.buffer = buffer;
+        this.format = format;
+        this.size = size;
+    }
+
+    /**
+     * Writes a layout to a file, replacing its contents.
+     *
+     * @param path    the file to write
+     * @param circles the laid out circles, for example {@link PackingResult#getPackables()}
+     * @param format  the arrangement of the circles in the file
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static void write(Path path, List<? extends Packable> circles, LayoutFormat format) throws IOException {
+        try (FileChannel channel = create(path)) {
+            write(channel, circles, format);
+        }
+    }
+
+    /**
+     * Writes a layout to a channel, starting at its current position. The columnar format reads
+     * each circle once into temporary columns, about {@value #RECORD_BYTES} bytes per circle.
+     *
+     * @param channel the channel to write to
+     * @param circles the laid out circles
+     * @param format  the arrangement of the circles in the output
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static void write(WritableByteChannel channel, List<? extends Packable> circles, LayoutFormat format)
+            throws IOException {
+        if (channel == null || circles == null || format == null) {
+            throw new IllegalArgumentException("Channel, circles and format cannot be null");
+        }
+        int n = circles.size();
+        ByteBuffer out = header(format, n);
+
+        if (format == LayoutFormat.ROW) {
+            for (int i = 0; i < n; i++) {
+                Packable circle = circles.get(i);
+                UUID id = circle.getId();
+                putRecord(channel, out, id.getMostSignificantBits(), id.getLeastSignificantBits(),
+                        circle.getX(), circle.getY(), circle.getRadius(), circle.getRadiusRatio());
+            }
+        } else {
+            // Gather the columns in one pass, so each circle and its ID are fetched once
+            long[] idMost = new long[n];
+            long[] idLeast = new long[n];
+            double[] x = new double[n];
+            double[] y = new double[n];
+            double[] radii = new double[n];
+            double[] radiusRatios = new double[n];
+            for (int i = 0; i < n; i++) {
+                Packable circle = circles.get(i);
+                UUID id = circle.getId();
+                idMost[i] = id.getMostSignificantBits();
+                idLeast[i] = id.getLeastSignificantBits();
+                x[i] = circle.getX();
+                y[i] = circle.getY();
+                radii[i] = circle.getRadius();
+                radiusRatios[i] = circle.getRadiusRatio();
+            }
+            putLongs(channel, out, idMost, n);
+            putLongs(channel, out, idLeast, n);
+            putDoubles(channel, out, x, n);
+            putDoubles(channel, out, y, n);
+            putDoubles(channel, out, radii, n);
+            putDoubles(channel, out, radiusRatios, n);
+        }
+        drain(channel, out);
+    }
+
+    /**
+     * Writes the layout of a batch to a file, replacing its contents.
+     *
+     * @param path   the file to write
+     * @param batch  the laid out batch
+     * @param format the arrangement of the circles in the file
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if an argument is null
+     * @see #write(WritableByteChannel, PackableBatch, LayoutFormat)
+     */
+    public static void write(Path path, PackableBatch batch, LayoutFormat format) throws IOException {
+        try (FileChannel channel = create(path)) {
+            write(channel, batch, format);
+        }
+    }
+
+    /**
+     * Writes the layout of a batch to a channel, starting at its current position. The values
+     * are copied straight from the arrays of the batch; circle {@code i} gets the ID
+     * {@code new UUID(0, i)}, as in {@link PackableBatch#asList()}.
+     *
+     * @param channel the channel to write to
+     * @param batch   the laid out batch
+     * @param format  the arrangement of the circles in the output
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static void write(WritableByteChannel channel, PackableBatch batch, LayoutFormat format)
+            throws IOException {
+        if (channel == null || batch == null || format == null) {
+            throw new IllegalArgumentException("Channel, batch and format cannot be null");
+        }
+        int n = batch.size();
+        double[] x = batch.getX();
+        double[] y = batch.getY();
+        double[] radii = batch.getRadii();
+        double[] radiusRatios = batch.getRadiusRatios();
+        ByteBuffer out = header(format, n);
+
+        if (format == LayoutFormat.ROW) {
+            for (int i = 0; i < n; i++) {
+                putRecord(channel, out, 0, i, x[i], y[i], radii[i], radiusRatios[i]);
+            }
+        } else {
+            putZeros(channel, out, n);
+            for (int i = 0; i < n; i++) {
+                if (out.remaining() < Long.BYTES) {
+                    drain(channel, out);
+                }
+                out.putLong(i);
+            }
+            putDoubles(channel, out, x, n);
+            putDoubles(channel, out, y, n);
+            putDoubles(channel, out, radii, n);
+            putDoubles(channel, out, radiusRatios, n);
+        }
+        drain(channel, out);
+    }
+
+    /**
+     * Writes the layout held by a circle buffer to a file, replacing its contents.
+     *
+     * @param path    the file to write
+     * @param circles the laid out circles
+     * @param format  the arrangement of the circles in the file
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if an argument is null
+     * @see #write(WritableByteChannel, CircleBuffer, LayoutFormat)
+     */
+    public static void write(Path path, CircleBuffer circles, LayoutFormat format) throws IOException {
+        try (FileChannel channel = create(path)) {
+            write(channel, circles, format);
+        }
+    }
+
+    /**
+     * Writes the layout held by a circle buffer to a channel, starting at its current position.
+     * Circle {@code i} gets the ID {@code new UUID(0, circles.getId(i))}, as in
+     * {@link CircleBuffer#asList()}. In the columnar format every column except the upper ID
+     * bits is handed to the channel directly from the buffer.
+     *
+     * @param channel the channel to write to
+     * @param circles the laid out circles
+     * @param format  the arrangement of the circles in the output
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static void write(WritableByteChannel channel, CircleBuffer circles, LayoutFormat format)
+            throws IOException {
+        if (channel == null || circles == null || format == null) {
+            throw new IllegalArgumentException("Channel, circles and format cannot be null");
+        }
+        int n = circles.size();
+        ByteBuffer out = header(format, n);
+
+        if (format == LayoutFormat.ROW) {
+            for (int i = 0; i < n; i++) {
+                putRecord(channel, out, 0, circles.getId(i), circles.getX(i), circles.getY(i),
+                        circles.getRadius(i), circles.getRadiusRatio(i));
+            }
+            drain(channel, out);
+        } else {
+            // Both layouts are little-endian columns of 8-byte values, so the bytes carry over
+            putZeros(channel, out, n);
+            drain(channel, out);
+            writeFully(channel, circles.column(CircleBuffer.ID_COLUMN));
+            writeFully(channel, circles.column(CircleBuffer.X_COLUMN));
+            writeFully(channel, circles.column(CircleBuffer.Y_COLUMN));
+            writeFully(channel, circles.column(CircleBuffer.RADIUS_COLUMN));
+            writeFully(channel, circles.column(CircleBuffer.RATIO_COLUMN));
+        }
+    }
+
+    /**
+     * Maps a layout file into memory for reading. The mapping stays valid after this method
+     * returns and is released by the garbage collector.
+     *
+     * @param path the file to map
+     * @return a view of the layout
+     * @throws IOException              if the file cannot be read, is not a layout file, has an
+     *                                  unsupported version or is truncated
+     * @throws IllegalArgumentException if the path is null
+     */
+    public static LayoutFile map(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES) {
+                throw new IOException("Not a layout file: " + path);
+            }
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Layout file is too large to map: " + path);
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        }
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (mapped.getInt(0) != MAGIC) {
+            throw new IOException("Not a layout file: " + path);
+        }
+        if (mapped.getShort(4) != VERSION) {
+            throw new IOException("Unsupported layout file version " + mapped.getShort(4) + ": " + path);
+        }
+        int formatOrdinal = mapped.getShort(6);
+        int size = mapped.getInt(8);
+        if (formatOrdinal < 0 || formatOrdinal >= LayoutFormat.values().length || size < 0
+                || mapped.capacity() < HEADER_BYTES + (long) size * RECORD_BYTES) {
+            throw new IOException("Corrupt layout file: " + path);
+        }
+        ByteBuffer body = mapped.slice(HEADER_BYTES, size * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        return new LayoutFile(body, LayoutFormat.values()[formatOrdinal], size);
+    }
+
+    /**
+     * Returns the arrangement of the circles in the file.
+     *
+     * @return the layout format
+     */
+    public LayoutFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the number of circles in the file.
+     *
+     * @return the circle count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the ID of a circle. Allocates a {@link UUID}; use
+     * {@link #getIdMostSignificantBits(int)} and {@link #getIdLeastSignificantBits(int)} to avoid it.
+     *
+     * @param index the index of the circle
+     * @return its ID
+     */
+    public UUID getId(int index) {
+        return new UUID(getIdMostSignificantBits(index), getIdLeastSignificantBits(index));
+    }
+
+    /**
+     * Returns the most significant bits of a circle's ID.
+     *
+     * @param index the index of the circle
+     * @return the upper 64 bits of its ID
+     */
+    public long getIdMostSignificantBits(int index) {
+        return buffer.getLong(offset(index, ID_MOST));
+    }
+
+    /**
+     * Returns the least significant bits of a circle's ID.
+     *
+     * @param index the index of the circle
+     * @return the lower 64 bits of its ID
+     */
+    public long getIdLeastSignificantBits(int index) {
+        return buffer.getLong(offset(index, ID_LEAST));
+    }
+
+    /**
+     * Returns the x-coordinate of a circle's center.
+     *
+     * @param index the index of the circle
+     * @return the x-coordinate
+     */
+    public double getX(int index) {
+        return buffer.getDouble(offset(index, X));
+    }
+
+    /**
+     * Returns the y-coordinate of a circle's center.
+     *
+     * @param index the index of the circle
+     * @return the y-coordinate
+     */
+    public double getY(int index) {
+        return buffer.getDouble(offset(index, Y));
+    }
+
+    /**
+     * Returns the radius of a circle.
+     *
+     * @param index the index of the circle
+     * @return the radius
+     */
+    public double getRadius(int index) {
+        return buffer.getDouble(offset(index, RADIUS));
+    }
+
+    /**
+     * Returns the radius ratio of a circle.
+     *
+     * @param index the index of the circle
+     * @return the radius ratio
+     */
+    public double getRadiusRatio(int index) {
+        return buffer.getDouble(offset(index, RATIO));
+    }
+
+    /**
+     * Copies the positions and radii into caller-owned arrays. For the columnar format this is
+     * a bulk copy of three columns.
+     *
+     * @param outX receives the x-coordinates
+     * @param outY receives the y-coordinates
+     * @param outR receives the radii
+     * @throws IllegalArgumentException if an array is null or shorter than {@link #size()}
+     */
+    public void copyLayout(double[] outX, double[] outY, double[] outR) {
+        if (outX == null || outY == null || outR == null
+                || outX.length < size || outY.length < size || outR.length < size) {
+            throw new IllegalArgumentException("Output arrays must hold every circle");
+        }
+        if (format == LayoutFormat.COLUMNAR) {
+            column(X).asDoubleBuffer().get(outX, 0, size);
+            column(Y).asDoubleBuffer().get(outY, 0, size);
+            column(RADIUS).asDoubleBuffer().get(outR, 0, size);
+        } else {
+            for (int i = 0; i < size; i++) {
+                outX[i] = getX(i);
+                outY[i] = getY(i);
+                outR[i] = getRadius(i);
+            }
+        }
+    }
+
+    /**
+     * Restores the stored positions and radii onto packables, matched by index.
+     *
+     * @param circles the packables to update, in the order they were written
+     * @throws IllegalArgumentException if the list is null or its size differs from {@link #size()}
+     */
+    public void applyTo(List<? extends Packable> circles) {
+        if (circles == null || circles.size() != size) {
+            throw new IllegalArgumentException("Expected " + size + " circles");
+        }
+        for (int i = 0; i < size; i++) {
+            Packable circle = circles.get(i);
+            circle.setX(getX(i));
+            circle.setY(getY(i));
+            circle.setRadius(getRadius(i));
+        }
+    }
+
+    /**
+     * Returns the byte offset of a field of a circle within the body.
+     */
+    private int offset(int index, int field) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return format == LayoutFormat.ROW
+                ? index * RECORD_BYTES + field * Long.BYTES
+                : (field * size + index) * Long.BYTES;
+    }
+
+    /**
+     * Returns a little-endian slice covering one column of the columnar format.
+     */
+    private ByteBuffer column(int field) {
+        return buffer.slice(field * size * Long.BYTES, size * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Opens a file for writing, creating it or truncating it.
+     */
+    private static FileChannel create(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Allocates the output buffer and puts the file header into it.
+     */
+    private static ByteBuffer header(LayoutFormat format, int size) {
+        ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort((short) format.ordinal());
+        out.putInt(size);
+        out.putInt(0);
+        return out;
+    }
+
+    /**
+     * Puts the record of one circle in the row format.
+     */
+    private static void putRecord(WritableByteChannel channel, ByteBuffer out, long idMost, long idLeast,
+                                  double x, double y, double radius, double radiusRatio) throws IOException {
+        if (out.remaining() < RECORD_BYTES) {
+            drain(channel, out);
+        }
+        out.putLong(idMost);
+        out.putLong(idLeast);
+        out.putDouble(x);
+        out.putDouble(y);
+        out.putDouble(radius);
+        out.putDouble(radiusRatio);
+    }
+
+    /**
+     * Puts the first {@code n} values of an array, one bulk copy per buffer load.
+     */
+    private static void putDoubles(WritableByteChannel channel, ByteBuffer out, double[] values, int n)
+            throws IOException {
+        for (int i = 0; i < n; ) {
+            if (out.remaining() < Double.BYTES) {
+                drain(channel, out);
+            }
+            int count = Math.min(n - i, out.remaining() / Double.BYTES);
+            out.asDoubleBuffer().put(values, i, count);
+            out.position(out.position() + count * Double.BYTES);
+            i += count;
+        }
+    }
+
+    /**
+     * Puts the first {@code n} values of an array, one bulk copy per buffer load.
+     */
+    private static void putLongs(WritableByteChannel channel, ByteBuffer out, long[] values, int n)
+            throws IOException {
+        for (int i = 0; i < n; ) {
+            if (out.remaining() < Long.BYTES) {
+                drain(channel, out);
+            }
+            int count = Math.min(n - i, out.remaining() / Long.BYTES);
+            out.asLongBuffer().put(values, i, count);
+            out.position(out.position() + count * Long.BYTES);
+            i += count;
+        }
+    }
+
+    /**
+     * Puts {@code n} zero {@code long}s.
+     */
+    private static void putZeros(WritableByteChannel channel, ByteBuffer out, int n) throws IOException {
+        for (int i = 0; i < n; i++) {
+            if (out.remaining() < Long.BYTES) {
+                drain(channel, out);
+            }
+            out.putLong(0);
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and clears the buffer.
+     */
+    private static void drain(WritableByteChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        writeFully(channel, out);
+        out.clear();
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer to the channel.
+     */
+    private static void writeFully(WritableByteChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+}
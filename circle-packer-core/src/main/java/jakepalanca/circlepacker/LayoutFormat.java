@@ -0,0 +1,19 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Arrangement of the circles in a file written by {@link LayoutFile}.
+ */
+public enum LayoutFormat {
+
+    /**
+     * One fixed-width record per circle holding its ID, x, y, radius and radius ratio. Suited to
+     * consumers that process one circle at a time.
+     */
+    ROW,
+
+    /**
+     * One column per field, each holding that field for every circle. Suited to consumers that
+     * copy whole fields into arrays, such as renderers.
+     */
+    COLUMNAR
+}
@@ -0,0 +1,211 @@
+package jakepalanca.circlepacker;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Circles stored in parallel primitive arrays, for callers that pack very many circles and do
+ * not want one object and {@link UUID} per circle.
+ * <p>
+ * Circle {@code i} has the radius ratio {@code getRadiusRatios()[i]}; packing writes its center
+ * to {@code getX()[i]} and {@code getY()[i]} and its radius to {@code getRadii()[i]}. The arrays
+ * are shared with the caller, not copied, and are read and written with bulk copies. A batch can
+ * be packed with {@link Packing#packCircles(double, double, PackableBatch, int, PackingOptions)}
+ * and, for code written against {@link Packable}, viewed as a list with {@link #asList()}.
+ * </p>
+ * <pre>{@code
+ * PackableBatch batch = new PackableBatch(ratios);
+ * Packing.packCircles(width, height, batch, 100, options);
+ * double[] x = batch.getX();
+ * }</pre>
+ */
+public class PackableBatch {
+
+    private final double[] radiusRatios;
+    private final double[] x;
+    private final double[] y;
+    private final double[] radii;
+    private final int size;
+
+    /**
+     * Creates a batch over the given radius ratios with newly allocated output arrays.
+     *
+     * @param radiusRatios the radius ratio of each circle
+     * @throws IllegalArgumentException if the array is null
+     */
+    public PackableBatch(double[] radiusRatios) {
+        this(radiusRatios, radiusRatios == null ? null : new double[radiusRatios.length],
+                radiusRatios == null ? null : new double[radiusRatios.length],
+                radiusRatios == null ? null : new double[radiusRatios.length]);
+    }
+
+    /**
+     * Creates a batch over caller-owned arrays. The output arrays may hold a previous layout,
+     * which is used when {@link PackingOptions#isWarmStart()} is set; a radius of 0 marks a
+     * circle that was never laid out.
+     *
+     * @param radiusRatios the radius ratio of each circle
+     * @param x            receives the x-coordinate of each center
+     * @param y            receives the y-coordinate of each center
+     * @param radii        receives the radius of each circle
+     * @throws IllegalArgumentException if an array is null or the output arrays are shorter than
+     *                                  the ratio array
+     */
+    public PackableBatch(double[] radiusRatios, double[] x, double[] y, double[] radii) {
+        if (radiusRatios == null || x == null || y == null || radii == null) {
+            throw new IllegalArgumentException("Batch arrays cannot be null");
+        }
+        if (x.length < radiusRatios.length || y.length < radiusRatios.length || radii.length < radiusRatios.length) {
+            throw new IllegalArgumentException("Output arrays must hold every circle");
+        }
+        this.radiusRatios = radiusRatios;
+        this.x = x;
+        this.y = y;
+        this.radii = radii;
+        this.size = radiusRatios.length;
+    }
+
+    /**
+     * Returns the number of circles in the batch.
+     *
+     * @return the circle count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the radius ratios, indexed by circle. The array is not copied.
+     *
+     * @return the radius ratio array
+     */
+    public double[] getRadiusRatios() {
+        return radiusRatios;
+    }
+
+    /**
+     * Returns the x-coordinates of the centers, indexed by circle. The array is not copied.
+     *
+     * @return the x-coordinate array
+     */
+    public double[] getX() {
+        return x;
+    }
+
+    /**
+     * Returns the y-coordinates of the centers, indexed by circle. The array is not copied.
+     *
+     * @return the y-coordinate array
+     */
+    public double[] getY() {
+        return y;
+    }
+
+    /**
+     * Returns the radii, indexed by circle. The array is not copied.
+     *
+     * @return the radius array
+     */
+    public double[] getRadii() {
+        return radii;
+    }
+
+    /**
+     * Returns a list view of the batch. Each call to {@link List#get(int)} returns a small
+     * {@link Packable} that reads and writes the arrays of the batch at that index; its ID is
+     * derived from the index, so it is only unique within the batch. The list has a fixed size.
+     *
+     * @return a list view of the circles
+     */
+    public List<Packable> asList() {
+        return new View();
+    }
+
+    /**
+     * Fixed-size list whose elements are created on demand.
+     */
+    private final class View extends AbstractList<Packable> implements RandomAccess {
+        @Override
+        public Packable get(int index) {
+            return new Element(Objects.checkIndex(index, size));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Flyweight {@link Packable} backed by one index of the batch arrays.
+     */
+    private final class Element implements Packable {
+        private final int index;
+
+        Element(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public UUID getId() {
+            return new UUID(0, index);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Element && ((Element) o).batch() == PackableBatch.this && ((Element) o).index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return index;
+        }
+
+        private PackableBatch batch() {
+            return PackableBatch.this;
+        }
+
+        @Override
+        public double getRadiusRatio() {
+            return radiusRatios[index];
+        }
+
+        @Override
+        public void setRadiusRatio(double radiusRatio) {
+            radiusRatios[index] = radiusRatio;
+        }
+
+        @Override
+        public double getRadius() {
+            return radii[index];
+        }
+
+        @Override
+        public void setRadius(double radius) {
+            radii[index] = radius;
+        }
+
+        @Override
+        public double getX() {
+            return x[index];
+        }
+
+        @Override
+        public void setX(double x) {
+            PackableBatch.this.x[index] = x;
+        }
+
+        @Override
+        public double getY() {
+            return y[index];
+        }
+
+        @Override
+        public void setY(double y) {
+            PackableBatch.this.y[index] = y;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package jakepalanca.circlepacker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A circle that contains other circles, for nested layouts such as groups of bubbles within
+ * groups. Children are leaves, which are any other {@link Packable}, or nested groups.
+ * <p>
+ * A group is laid out by {@link Packing#packHierarchy(double, double, PackableGroup, PackingOptions)}:
+ * its children are packed around each other and its radius is that of the circle enclosing
+ * them. Its radius ratio is therefore derived: each layout stores the sum of the radius ratios
+ * of its leaves, replacing any value set in between.
+ * </p>
+ */
+public class PackableGroup implements Packable {
+
+    private final UUID id;
+    private final List<Packable> children = new ArrayList<>();
+    private double radiusRatio;
+    private double radius;
+    private double x;
+    private double y;
+
+    /**
+     * Constructs an empty group with a random ID.
+     */
+    public PackableGroup() {
+        this(UUID.randomUUID());
+    }
+
+    /**
+     * Constructs an empty group with the given ID.
+     *
+     * @param id the ID of the group
+     * @throws IllegalArgumentException if the ID is null
+     */
+    public PackableGroup(UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Group ID cannot be null");
+        }
+        this.id = id;
+    }
+
+    /**
+     * Adds a leaf or a nested group to this group.
+     *
+     * @param child the child to add
+     * @throws IllegalArgumentException if the child is null or is this group
+     */
+    public void addChild(Packable child) {
+        if (child == null) {
+            throw new IllegalArgumentException("Child cannot be null");
+        }
+        if (child == this) {
+            throw new IllegalArgumentException("A group cannot contain itself");
+        }
+        children.add(child);
+    }
+
+    /**
+     * Removes a child from this group.
+     *
+     * @param child the child to remove
+     * @return {@code true} if the child was in this group
+     */
+    public boolean removeChild(Packable child) {
+        return children.remove(child);
+    }
+
+    /**
+     * Returns the direct children of this group, in the order they were added.
+     *
+     * @return an unmodifiable view of the children
+     */
+    public List<Packable> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Returns the radius ratio stored by the last layout, the sum of the radius ratios of the
+     * leaves below this group at that time, or the value last set since.
+     *
+     * @return the radius ratio, 0 until the group is laid out or set
+     */
+    @Override
+    public double getRadiusRatio() {
+        return radiusRatio;
+    }
+
+    /**
+     * Stores a radius ratio for this group. Laying out the hierarchy replaces it with the sum of
+     * the radius ratios of the leaves below the group, so the value only matters to code that
+     * reads it back before then.
+     *
+     * @param radiusRatio the radius ratio to store
+     */
+    @Override
+    public void setRadiusRatio(double radiusRatio) {
+        this.radiusRatio = radiusRatio;
+    }
+
+    @Override
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public void setRadius(double radius) {
+        this.radius = radius;
+    }
+
+    @Override
+    public double getX() {
+        return x;
+    }
+
+    @Override
+    public void setX(double x) {
+        this.x = x;
+    }
+
+    @Override
+    public double getY() {
+        return y;
+    }
+
+    @Override
+    public void setY(double y) {
+        this.y = y;
+    }
+}
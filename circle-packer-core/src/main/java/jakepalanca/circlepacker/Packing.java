@@ -0,0 +1,1026 @@
+package jakepalanca.circlepacker;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class containing methods for packing circles within a rectangle.
+ */
+public class Packing {
+
+    /** Budget passed by the iteration-limited entry points. */
+    static final long NO_TIME_BUDGET = -1;
+
+    /**
+     * Packs circles within a rectangle using the specified width, height, and maximum number of iterations
+     * for optimization. The method assigns an initial random position for each circle and adjusts
+     * their positions to minimize overlap while keeping them within bounds.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param circles       the list of circles (packable objects) to be packed
+     * @param maxIterations the maximum number of iterations allowed for the optimization
+     * @return a {@link PackingResult} object containing the result of the packing operation,
+     *         including details such as the number of iterations, total overlap area, and
+     *         whether overlaps still exist
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive or any circle's radius ratio is non-positive
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, List<? extends Packable> circles, int maxIterations) {
+        return packCircles(width, height, circles, maxIterations, new PackingOptions());
+    }
+
+    /**
+     * Packs circles within a rectangle using the specified width, height, maximum number of iterations
+     * and packing options.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param circles       the list of circles (packable objects) to be packed
+     * @param maxIterations the maximum number of iterations allowed for the optimization
+     * @param options       the options controlling the packing algorithm
+     * @return a {@link PackingResult} object containing the result of the packing operation
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, any circle's radius ratio
+     *                                  is non-positive, or the options are null
+     * @see #packCircles(double, double, List, int)
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, List<? extends Packable> circles,
+                                                      int maxIterations, PackingOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        return packCircles(width, height, circles, maxIterations, options, new PackingWorkspace(), NO_TIME_BUDGET);
+    }
+
+    /**
+     * Packs circles within a rectangle, relaxing for as long as a time budget allows instead of
+     * for a fixed number of iterations.
+     *
+     * @param width      the width of the rectangle
+     * @param height     the height of the rectangle
+     * @param circles    the list of circles (packable objects) to be packed
+     * @param timeBudget the time the whole run may take
+     * @return a {@link PackingResult} object containing the result of the packing operation
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, any circle's radius ratio
+     *                                  is non-positive, or the time budget is null or negative
+     * @see #packCircles(double, double, List, Duration, PackingOptions)
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, List<? extends Packable> circles,
+                                                      Duration timeBudget) {
+        return packCircles(width, height, circles, timeBudget, new PackingOptions());
+    }
+
+    /**
+     * Packs circles within a rectangle, relaxing for as long as a time budget allows instead of
+     * for a fixed number of iterations.
+     * <p>
+     * Relaxation sweeps run until a stopping criterion of the options is met or the next sweep
+     * would leave too little time, estimated from the duration of the previous sweep, to shrink
+     * and verify the layout within the budget. The budget is checked between sweeps only, so a
+     * single sweep over a very large chart can overrun it. When the budget runs out, the layout
+     * with the least overlap seen during relaxation is kept and the result reports
+     * {@link TerminationReason#DEADLINE}. The shrink step of the options always runs afterwards,
+     * so the result is free of overlaps either way. Shrinking is not interrupted by the budget
+     * and, with {@link ShrinkMode#GEOMETRIC}, can take a while on a large layout that was cut
+     * short with many overlaps left; {@link ShrinkMode#UNIFORM_SCALE} repairs it in one pass.
+     * {@link PackingAlgorithm#FRONT_CHAIN} is not iterative and ignores the budget.
+     * </p>
+     *
+     * @param width      the width of the rectangle
+     * @param height     the height of the rectangle
+     * @param circles    the list of circles (packable objects) to be packed
+     * @param timeBudget the time the whole run may take
+     * @param options    the options controlling the packing algorithm
+     * @return a {@link PackingResult} object containing the result of the packing operation
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, any circle's radius ratio
+     *                                  is non-positive, or the time budget or options are null, or the
+     *                                  time budget is negative
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, List<? extends Packable> circles,
+                                                      Duration timeBudget, PackingOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        return packCircles(width, height, circles, Integer.MAX_VALUE, options, new PackingWorkspace(),
+                toBudgetNanos(timeBudget));
+    }
+
+    /**
+     * Converts a time budget to nanoseconds, saturating very long budgets.
+     *
+     * @param timeBudget the time budget
+     * @return the budget in nanoseconds
+     * @throws IllegalArgumentException if the budget is null or negative
+     */
+    static long toBudgetNanos(Duration timeBudget) {
+        if (timeBudget == null || timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Time budget must be a non-negative duration.");
+        }
+        try {
+            return timeBudget.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Packs circles using the scratch buffers of the given workspace.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param circles       the list of circles (packable objects) to be packed
+     * @param maxIterations the maximum number of iterations allowed for the optimization
+     * @param options       the options controlling the packing algorithm
+     * @param workspace     scratch buffers reused between runs on the same thread
+     * @param budgetNanos   the time the whole run may take, or {@link #NO_TIME_BUDGET}
+     * @return a {@link PackingResult} object containing the result of the packing operation
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive or any circle's radius ratio
+     *                                  is non-positive
+     */
+    static PackingResult<Packable> packCircles(double width, double height, List<? extends Packable> circles,
+                                               int maxIterations, PackingOptions options,
+                                               PackingWorkspace workspace, long budgetNanos) {
+        return pack(width, height, PackingTarget.of(circles), maxIterations, options, workspace, budgetNanos);
+    }
+
+    /**
+     * Packs the circles of a batch within a rectangle. The radius ratios are read and the layout
+     * is written with bulk array copies, with no per-circle objects.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param batch         the circles to pack
+     * @param maxIterations the maximum number of iterations allowed for the optimization
+     * @return a {@link PackingResult} whose packables are {@link PackableBatch#asList()}
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, the batch is null or any
+     *                                  radius ratio is non-positive
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, PackableBatch batch,
+                                                      int maxIterations) {
+        return packCircles(width, height, batch, maxIterations, new PackingOptions());
+    }
+
+    /**
+     * Packs the circles of a batch within a rectangle using the given options. The radius ratios
+     * are read and the layout is written with bulk array copies, with no per-circle objects.
+     * The layout is the same as for a list of packables with the same radius ratios, in the same
+     * order.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param batch         the circles to pack
+     * @param maxIterations the maximum number of iterations allowed for the optimization
+     * @param options       the options controlling the packing algorithm
+     * @return a {@link PackingResult} whose packables are {@link PackableBatch#asList()}
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, the batch or options are
+     *                                  null, or any radius ratio is non-positive
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, PackableBatch batch,
+                                                      int maxIterations, PackingOptions options) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch cannot be null.");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        return pack(width, height, PackingTarget.of(batch), maxIterations, options, new PackingWorkspace(),
+                NO_TIME_BUDGET);
+    }
+
+    /**
+     * Packs circles stored outside the heap within a rectangle. The radius ratios are read from
+     * the buffer and the layout is written back into it; only the solver's working arrays live
+     * on the heap during the run. The layout is the same as for a list of packables with the same
+     * radius ratios, in the same order.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param buffer        the circles to pack
+     * @param maxIterations the maximum number of iterations allowed for the optimization
+     * @param options       the options controlling the packing algorithm
+     * @return a {@link PackingResult} whose packables are {@link CircleBuffer#asList()}
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, the buffer or options are
+     *                                  null, or any radius ratio is non-positive
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, CircleBuffer buffer,
+                                                      int maxIterations, PackingOptions options) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Circle buffer cannot be null.");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        return pack(width, height, PackingTarget.of(buffer), maxIterations, options, new PackingWorkspace(),
+                NO_TIME_BUDGET);
+    }
+
+    /**
+     * Lays out a hierarchy of nested circles within a rectangle with default options.
+     *
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     * @param root   the outermost group
+     * @return a {@link PackingResult} listing every node of the hierarchy
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, the root is null, a group
+     *                                  is empty, a node appears twice or a leaf's radius ratio is non-positive
+     * @see #packHierarchy(double, double, PackableGroup, PackingOptions)
+     */
+    public static PackingResult<Packable> packHierarchy(double width, double height, PackableGroup root) {
+        return packHierarchy(width, height, root, new PackingOptions());
+    }
+
+    /**
+     * Lays out a hierarchy of nested circles within a rectangle.
+     * <p>
+     * Each leaf's area is proportional to its radius ratio. The children of every group are
+     * packed around each other with the front-chain algorithm, bottom-up, and each group becomes
+     * the smallest circle enclosing its children. The root is then centered in the rectangle and
+     * the whole tree scaled so that the root touches its shorter side. Siblings never overlap and
+     * every child lies within its parent. With {@link SolverMode#PARALLEL}, independent subtrees
+     * are packed concurrently on a shared fork-join pool of
+     * {@link PackingOptions#getParallelism()} threads. The listener and the cancellation token of
+     * the options apply; the other options do not. A run cancelled before its last group is packed
+     * returns with {@link TerminationReason#CANCELLED} and leaves the nodes unplaced.
+     * </p>
+     *
+     * @param width   the width of the rectangle
+     * @param height  the height of the rectangle
+     * @param root    the outermost group
+     * @param options the options controlling the layout
+     * @return a {@link PackingResult} listing every node of the hierarchy in depth-first
+     *         pre-order, starting with the root
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, the root or options are
+     *                                  null, a group is empty, a node appears twice or a leaf's radius ratio
+     *                                  is non-positive
+     */
+    public static PackingResult<Packable> packHierarchy(double width, double height, PackableGroup root,
+                                                        PackingOptions options) {
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        if (root == null) {
+            throw new IllegalArgumentException("Root group cannot be null.");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Rectangle dimensions must be positive.");
+        }
+        PackingRun run = new PackingRun(false, options.getListener(), options.getCancellationToken());
+        List<Packable> nodes = HierarchyPacker.prepare(root);
+        run.start(width, height, nodes.size());
+        run.endPhase(PackingPhase.INIT);
+
+        ForkJoinPool pool = options.getSolverMode() == SolverMode.PARALLEL
+                ? ParallelSolver.sharedPool(options.getParallelism()) : null;
+        boolean packed = HierarchyPacker.packGroups(nodes, pool, run);
+        run.terminationReason = packed ? TerminationReason.NO_OVERLAPS : TerminationReason.CANCELLED;
+        run.endPhase(PackingPhase.RELAX);
+
+        if (packed) {
+            HierarchyPacker.placeTree(nodes, width, height);
+        }
+        run.endPhase(PackingPhase.WRITE_BACK);
+
+        PackingMetrics metrics = run.metrics();
+        return run.complete(new PackingResult<>(nodes, metrics.getTotalNanos() / 1_000_000, 0, false, 0, 0,
+                run.terminationReason, run.trace(), metrics));
+    }
+
+    /**
+     * Packs circles given as primitive arrays within a rectangle. A shorthand for
+     * {@link #packCircles(double, double, PackableBatch, int, PackingOptions)} with a batch over
+     * these arrays.
+     *
+     * @param width         the width of the rectangle
+     * @param height        the height of the rectangle
+     * @param radiusRatios  the radius ratio of each circle
+     * @param outX          receives the x-coordinate of each center
+     * @param outY          receives the y-coordinate of each center
+     * @param outR          receives the radius of each circle
+     * @param maxIterations the maximum number of iterations allowed for the optimization
+     * @param options       the options controlling the packing algorithm
+     * @return a {@link PackingResult} whose packables view the arrays
+     * @throws IllegalArgumentException if the rectangle dimensions are not positive, an array or the options are
+     *                                  null, an output array is too short, or any radius ratio is non-positive
+     */
+    public static PackingResult<Packable> packCircles(double width, double height, double[] radiusRatios,
+                                                      double[] outX, double[] outY, double[] outR,
+                                                      int maxIterations, PackingOptions options) {
+        return packCircles(width, height, new PackableBatch(radiusRatios, outX, outY, outR), maxIterations, options);
+    }
+
+    /**
+     * Packs the circles of a target using the scratch buffers of the given workspace.
+     */
+    private static PackingResult<Packable> pack(double width, double height, PackingTarget circles,
+                                                int maxIterations, PackingOptions options,
+                                                PackingWorkspace workspace, long budgetNanos) {
+        PackingRun run = new PackingRun(options.isTraceEnabled(), options.getListener(),
+                options.getCancellationToken());
+        if (budgetNanos != NO_TIME_BUDGET) {
+            run.setTimeBudget(budgetNanos);
+        }
+
+        // Validate the input before the listener sees the run, so every started run also completes
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Rectangle dimensions must be positive.");
+        }
+        int n = circles.size();
+        for (int i = 0; i < n; i++) {
+            if (!(circles.radiusRatio(i) > 0)) {
+                throw new IllegalArgumentException("All circle radius ratios must be positive.");
+            }
+        }
+        run.start(width, height, n);
+
+        // Reuse the layout of an identical earlier run when a cache is configured. A time-budgeted
+        // layout depends on how fast the machine was, so it is neither reused nor stored.
+        LayoutCache cache = options.getLayoutCache();
+        LayoutCache.Lookup lookup = null;
+        if (cache != null && !options.isWarmStart() && budgetNanos == NO_TIME_BUDGET) {
+            lookup = cache.lookup(width, height, circles, maxIterations, options);
+            if (lookup.entry != null) {
+                return cache.apply(lookup, circles, run);
+            }
+        }
+
+        // Calculate total area and desired packing density
+        double rectangleArea = width * height;
+        double desiredPackingDensity = 0.8; // Adjust as needed
+        double maxTotalCircleArea = rectangleArea * desiredPackingDensity;
+
+        // Gather radius ratios into primitive arrays; the solver works on these until the write-back
+        workspace.ensureCapacity(n);
+        double[] x = workspace.x;
+        double[] y = workspace.y;
+        double[] r = workspace.r;
+
+        // Calculate total radius ratio
+        double totalRadiusRatio = 0;
+        boolean warmStart = options.isWarmStart() && options.getAlgorithm() == PackingAlgorithm.RELAXATION;
+        boolean[] placed = warmStart ? workspace.placed : null;
+        double[] previousScales = warmStart ? new double[n] : null;
+        int previousCount = 0;
+        for (int i = 0; i < n; i++) {
+            double radiusRatio = circles.radiusRatio(i);
+            r[i] = radiusRatio;
+            totalRadiusRatio += radiusRatio;
+
+            // Seed from the previous layout when there is one
+            double previousRadius = warmStart ? circles.radius(i) : 0;
+            if (previousRadius > 0) {
+                x[i] = circles.x(i);
+                y[i] = circles.y(i);
+                placed[i] = Double.isFinite(x[i]) && Double.isFinite(y[i]);
+                if (placed[i]) {
+                    previousScales[previousCount++] = previousRadius * previousRadius / radiusRatio;
+                }
+            }
+        }
+
+        // Initialize radii; a warm start keeps the area-per-ratio scale of the previous layout.
+        // Circles whose ratio changed have a scale of their own, so the median is taken, which
+        // is the scale of the unchanged circles as long as they are the majority.
+        double previousScale = 0;
+        if (previousCount > 0) {
+            Arrays.sort(previousScales, 0, previousCount);
+            previousScale = previousScales[previousCount / 2];
+        }
+        for (int i = 0; i < n; i++) {
+            if (previousScale > 0) {
+                r[i] = Math.sqrt(previousScale * r[i]);
+            } else {
+                double circleArea = (r[i] / totalRadiusRatio) * maxTotalCircleArea;
+                r[i] = Math.sqrt(circleArea / Math.PI);
+            }
+        }
+
+        workspace.reseed(options.getSeed());
+        if (options.getAlgorithm() == PackingAlgorithm.FRONT_CHAIN) {
+            // Build the cluster constructively, then scale it into the rectangle
+            run.endPhase(PackingPhase.INIT);
+            FrontChainPacker.pack(x, y, r, n);
+            run.endPhase(PackingPhase.RELAX);
+            fitToRectangle(x, y, r, n, width, height);
+            run.endPhase(PackingPhase.SHRINK);
+            run.terminationReason = TerminationReason.NO_OVERLAPS;
+        } else {
+            // Initial random placement within bounds, keeping warm-started circles where they were
+            SplittableRandom rand = workspace.random;
+            for (int i = 0; i < n; i++) {
+                if (placed != null && placed[i]) {
+                    keepCircleWithinBounds(x, y, r, i, width, height);
+                    continue;
+                }
+                x[i] = r[i] + rand.nextDouble() * (width - 2 * r[i]);
+                y[i] = r[i] + rand.nextDouble() * (height - 2 * r[i]);
+            }
+            run.endPhase(PackingPhase.INIT);
+
+            // Optimize positions
+            optimizeCircles(width, height, x, y, r, n, maxIterations, options, workspace, run);
+        }
+
+        // Adjust positions to ensure circles are within bounds
+        adjustPositionsToFit(x, y, r, n, width, height);
+        run.endPhase(PackingPhase.CLAMP);
+
+        // Check for overlaps and compute total overlap area over the candidate pairs of a grid
+        SpatialGrid grid = workspace.grid;
+        grid.rebuild(x, y, r, n, width, height);
+        double totalOverlapArea;
+        boolean overlapsExist;
+        if (options.isOverlapAreaComputed()) {
+            totalOverlapArea = totalOverlapArea(x, y, r, grid);
+            overlapsExist = totalOverlapArea > 0;
+        } else {
+            totalOverlapArea = Double.NaN;
+            overlapsExist = anyOverlap(x, y, r, grid);
+        }
+        run.endPhase(PackingPhase.VERIFY);
+
+        // Write the final layout back to the packables
+        circles.write(x, y, r);
+        run.endPhase(PackingPhase.WRITE_BACK);
+
+        PackingMetrics metrics = run.metrics();
+        PackingResult<Packable> result = new PackingResult<>(circles.packables(),
+                metrics.getTotalNanos() / 1_000_000, run.iterations, overlapsExist, totalOverlapArea,
+                run.adjustmentsMade(), run.terminationReason, run.trace(), metrics);
+        if (lookup != null && !result.isCancelled()) {
+            cache.store(lookup, x, y, r, result);
+        }
+        return run.complete(result);
+    }
+
+    /**
+     * Adjusts the positions of the circles to ensure they are within the boundaries of the rectangle.
+     * The circles are moved if necessary to prevent them from exceeding the rectangle's width and height.
+     *
+     * @param x      the x-coordinates of the circles
+     * @param y      the y-coordinates of the circles
+     * @param r      the radii of the circles
+     * @param n      the number of circles
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    private static void adjustPositionsToFit(double[] x, double[] y, double[] r, int n, double width, double height) {
+        for (int i = 0; i < n; i++) {
+            keepCircleWithinBounds(x, y, r, i, width, height);
+        }
+    }
+
+    /**
+     * Scales and translates a cluster of circles uniformly so that its bounding box fits the
+     * rectangle and is centered in it. Radii are reduced by a tiny relative margin so circles
+     * that were placed touching are not reported as overlapping because of rounding.
+     *
+     * @param x      the x-coordinates of the circles
+     * @param y      the y-coordinates of the circles
+     * @param r      the radii of the circles
+     * @param n      the number of circles
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    private static void fitToRectangle(double[] x, double[] y, double[] r, int n, double width, double height) {
+        if (n == 0) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i] - r[i]);
+            minY = Math.min(minY, y[i] - r[i]);
+            maxX = Math.max(maxX, x[i] + r[i]);
+            maxY = Math.max(maxY, y[i] + r[i]);
+        }
+
+        double scale = Math.min(width / (maxX - minX), height / (maxY - minY));
+        double centerX = (minX + maxX) / 2;
+        double centerY = (minY + maxY) / 2;
+        double radiusScale = scale * (1 - 1000 * FrontChainPacker.TOLERANCE);
+        for (int i = 0; i < n; i++) {
+            x[i] = (x[i] - centerX) * scale + width / 2;
+            y[i] = (y[i] - centerY) * scale + height / 2;
+            r[i] *= radiusScale;
+        }
+    }
+
+    /**
+     * Optimizes circle positions and sizes to minimize overlaps.
+     *
+     * @param width          The width of the rectangle.
+     * @param height         The height of the rectangle.
+     * @param x              The x-coordinates of the circles.
+     * @param y              The y-coordinates of the circles.
+     * @param r              The radii of the circles.
+     * @param n              The number of circles.
+     * @param maxIterations  Maximum number of iterations.
+     * @param options        Packing options selecting the solver mode, broad phase, shrink mode
+     *                       and convergence criteria.
+     * @param workspace      Scratch buffers providing the grid, sweep accumulator and random source.
+     * @param run            Receives the iteration count, termination reason and trace.
+     */
+    private static void optimizeCircles(double width, double height, double[] x, double[] y, double[] r, int n,
+                                        int maxIterations, PackingOptions options, PackingWorkspace workspace,
+                                        PackingRun run) {
+        SweepStats stats = workspace.stats;
+        long relaxStart = System.nanoTime();
+        double bestOverlap = Double.POSITIVE_INFINITY;
+        int bestIteration = 0;
+        int sweepsSinceBest = 0;
+        int iteration = 0;
+        TerminationReason reason = TerminationReason.MAX_ITERATIONS;
+
+        // A time-budgeted run may stop at any sweep, so it keeps the positions of the best one
+        boolean keepBest = run.hasDeadline();
+        long lastSweepNanos = 0;
+        if (keepBest) {
+            workspace.ensureSnapshotCapacity(n);
+        }
+        run.trackLayout(x, y, r, n, maxIterations);
+
+        try (ParallelSolver solver = options.getSolverMode() == SolverMode.PARALLEL
+                ? new ParallelSolver(options.getParallelism(), workspace.random.nextLong()) : null) {
+            SplittableRandom rand = workspace.random;
+            SpatialGrid grid = options.getBroadPhase() == BroadPhase.GRID ? workspace.grid : null;
+
+            while (iteration < maxIterations) {
+                if (run.isCancelled()) {
+                    reason = TerminationReason.CANCELLED;
+                    break;
+                }
+                long sweepStart = System.nanoTime();
+                if (keepBest) {
+                    // Leave room for this sweep and for the shrink and verification that follow
+                    if (sweepStart + 2 * lastSweepNanos > run.deadlineNanos() || sweepStart >= run.deadlineNanos()) {
+                        reason = TerminationReason.DEADLINE;
+                        break;
+                    }
+                    System.arraycopy(x, 0, workspace.candidateX, 0, n);
+                    System.arraycopy(y, 0, workspace.candidateY, 0, n);
+                }
+
+                stats.reset();
+                if (solver != null) {
+                    solver.sweep(width, height, x, y, r, n, stats);
+                } else if (grid != null) {
+                    sweepGrid(width, height, x, y, r, n, grid, rand, stats);
+                } else {
+                    sweepAllPairs(width, height, x, y, r, n, rand, stats);
+                }
+                iteration++;
+                lastSweepNanos = System.nanoTime() - sweepStart;
+                run.pairTests += stats.pairTests;
+                run.overlapsResolved += stats.overlapCount;
+
+                // The overlap found by a sweep describes the positions it started from
+                boolean improved = stats.totalOverlap < bestOverlap;
+                if (improved) {
+                    bestOverlap = stats.totalOverlap;
+                    bestIteration = iteration;
+                    if (keepBest) {
+                        workspace.promoteCandidate();
+                    }
+                }
+
+                if (run.wantsIteration(iteration)) {
+                    run.recordIteration(new IterationStats(iteration, stats.overlapCount, stats.totalOverlap,
+                            stats.maxDisplacement, System.nanoTime() - relaxStart));
+                }
+
+                // Stop as soon as any convergence criterion is met
+                if (stats.overlapCount == 0) {
+                    reason = TerminationReason.NO_OVERLAPS;
+                    break;
+                }
+                if (stats.maxDisplacement < options.getDisplacementTolerance()) {
+                    reason = TerminationReason.DISPLACEMENT_CONVERGED;
+                    break;
+                }
+                if (stats.totalOverlap <= options.getOverlapTolerance()) {
+                    reason = TerminationReason.OVERLAP_CONVERGED;
+                    break;
+                }
+                sweepsSinceBest = improved ? 0 : sweepsSinceBest + 1;
+                if (options.getStallSweeps() > 0 && sweepsSinceBest >= options.getStallSweeps()) {
+                    reason = TerminationReason.STALLED;
+                    break;
+                }
+            }
+        }
+
+        // Out of time after sweeps that made things worse: go back to the best positions seen.
+        // When the last sweep was the best, the positions it produced are kept instead.
+        if (reason == TerminationReason.DEADLINE && bestIteration > 0 && bestIteration < iteration) {
+            System.arraycopy(workspace.bestX, 0, x, 0, n);
+            System.arraycopy(workspace.bestY, 0, y, 0, n);
+        }
+
+        run.iterations = iteration;
+        run.terminationReason = reason;
+        run.endPhase(PackingPhase.RELAX);
+
+        // A cancelled run returns promptly with the partial layout, overlaps included
+        if (reason == TerminationReason.CANCELLED) {
+            run.endPhase(PackingPhase.SHRINK);
+            return;
+        }
+
+        // Final adjustment: shrink circles if necessary
+        int resized = options.getShrinkMode() == ShrinkMode.UNIFORM_SCALE
+                ? scaleSizesToFit(x, y, r, n, width, height, options.getBroadPhase(), workspace.grid) : -1;
+        if (resized < 0) {
+            resized = adjustSizesToFit(x, y, r, n, width, height);
+        }
+        run.radiusAdjustments += resized;
+        run.endPhase(PackingPhase.SHRINK);
+    }
+
+    /**
+     * Performs one relaxation sweep over every pair of circles.
+     *
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param x      The x-coordinates of the circles.
+     * @param y      The y-coordinates of the circles.
+     * @param r      The radii of the circles.
+     * @param n      The number of circles.
+     * @param rand   Random source used to separate coincident circles.
+     * @param stats  Receives the overlaps found and the pushes applied during the sweep.
+     */
+    private static void sweepAllPairs(double width, double height, double[] x, double[] y, double[] r, int n,
+                                      SplittableRandom rand, SweepStats stats) {
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                resolveOverlap(x, y, r, i, j, width, height, rand, stats);
+            }
+        }
+    }
+
+    /**
+     * Performs one relaxation sweep over the candidate pairs reported by a spatial grid.
+     * The grid is rebuilt from the positions at the start of the sweep. A sweep that finds no
+     * overlap moves no circle, so its result is exact even though positions change while
+     * earlier sweeps run.
+     *
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param x      The x-coordinates of the circles.
+     * @param y      The y-coordinates of the circles.
+     * @param r      The radii of the circles.
+     * @param n      The number of circles.
+     * @param grid   Grid reused between sweeps.
+     * @param rand   Random source used to separate coincident circles.
+     * @param stats  Receives the overlaps found and the pushes applied during the sweep.
+     */
+    private static void sweepGrid(double width, double height, double[] x, double[] y, double[] r, int n,
+                                  SpatialGrid grid, SplittableRandom rand, SweepStats stats) {
+        grid.rebuild(x, y, r, n, width, height);
+
+        for (int cell = 0; cell < grid.cellCount(); cell++) {
+            int end = grid.cellEnd(cell);
+
+            for (int a = grid.cellStart(cell); a < end; a++) {
+                int i = grid.item(a);
+
+                for (int b = a + 1; b < end; b++) {
+                    int j = grid.item(b);
+                    if (!grid.ownsPair(cell, i, j)) {
+                        continue;
+                    }
+
+                    resolveOverlap(x, y, r, i, j, width, height, rand, stats);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pushes two circles apart along the line between their centers if they overlap.
+     *
+     * @param x      The x-coordinates of the circles.
+     * @param y      The y-coordinates of the circles.
+     * @param r      The radii of the circles.
+     * @param i      Index of the first circle.
+     * @param j      Index of the second circle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param rand   Random source used to separate coincident circles.
+     * @param stats  Receives the overlap and push if the circles overlapped.
+     * @return {@code true} if the circles overlapped and were pushed apart
+     */
+    static boolean resolveOverlap(double[] x, double[] y, double[] r, int i, int j, double width,
+                                  double height, SplittableRandom rand, SweepStats stats) {
+        stats.pairTests++;
+        double dx = x[j] - x[i];
+        double dy = y[j] - y[i];
+        double minDistance = r[i] + r[j];
+
+        // Cheap rejection before taking the square root
+        if (dx * dx + dy * dy >= minDistance * minDistance) {
+            return false;
+        }
+
+        double distance = Math.hypot(dx, dy);
+        if (distance >= minDistance) {
+            return false;
+        }
+
+        double overlap = minDistance - distance;
+
+        if (distance == 0) {
+            // Assign a small random shift to avoid division by zero
+            double angle = rand.nextDouble() * 2 * Math.PI;
+            dx = Math.cos(angle);
+            dy = Math.sin(angle);
+            distance = 0.001; // Small value to prevent division by zero
+        }
+
+        // Adjust positions to resolve overlap
+        double shiftX = (dx / distance) * (overlap / 2);
+        double shiftY = (dy / distance) * (overlap / 2);
+
+        x[i] -= shiftX;
+        y[i] -= shiftY;
+        x[j] += shiftX;
+        y[j] += shiftY;
+
+        // Keep circles within bounds
+        keepCircleWithinBounds(x, y, r, i, width, height);
+        keepCircleWithinBounds(x, y, r, j, width, height);
+
+        stats.recordPair(overlap, Math.hypot(shiftX, shiftY));
+        return true;
+    }
+
+    /**
+     * Adjusts circle sizes to fit within the rectangle without overlaps.
+     *
+     * @param x      The x-coordinates of the circles.
+     * @param y      The y-coordinates of the circles.
+     * @param r      The radii of the circles.
+     * @param n      The number of circles.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @return The number of radius reductions applied.
+     */
+    private static int adjustSizesToFit(double[] x, double[] y, double[] r, int n, double width, double height) {
+        int reductions = 0;
+        boolean resized;
+        do {
+            resized = false;
+
+            for (int i = 0; i < n; i++) {
+                // Check if circle is out of bounds
+                if (x[i] - r[i] < 0 ||
+                        x[i] + r[i] > width ||
+                        y[i] - r[i] < 0 ||
+                        y[i] + r[i] > height) {
+
+                    // Reduce size
+                    r[i] *= 0.95;
+                    reductions++;
+                    resized = true;
+                }
+
+                // Check for overlaps
+                for (int j = i + 1; j < n; j++) {
+                    double dx = x[j] - x[i];
+                    double dy = y[j] - y[i];
+                    double distance = Math.hypot(dx, dy);
+                    double minDistance = r[i] + r[j];
+
+                    if (distance < minDistance) {
+                        // Reduce sizes
+                        r[i] *= 0.95;
+                        r[j] *= 0.95;
+                        reductions += 2;
+                        resized = true;
+                    }
+                }
+            }
+        } while (resized);
+        return reductions;
+    }
+
+    /**
+     * Scales all radii by the largest common factor that leaves the current positions free of
+     * overlaps and inside the rectangle. The factor is the minimum of {@code d / (r1 + r2)} over
+     * overlapping pairs and of the distance from each center to the nearest edge divided by its
+     * radius, so a single pass over the candidate pairs is enough. Circles are never enlarged.
+     *
+     * @param x          The x-coordinates of the circles.
+     * @param y          The y-coordinates of the circles.
+     * @param r          The radii of the circles.
+     * @param n          The number of circles.
+     * @param width      The width of the rectangle.
+     * @param height     The height of the rectangle.
+     * @param broadPhase The strategy used to find overlapping pairs.
+     * @param grid       Grid used when the broad phase is {@link BroadPhase#GRID}.
+     * @return The number of circles resized, or -1 if no positive factor exists and the radii were
+     *         left unchanged.
+     */
+    private static int scaleSizesToFit(double[] x, double[] y, double[] r, int n, double width, double height,
+                                           BroadPhase broadPhase, SpatialGrid grid) {
+        double scale = 1;
+
+        // Boundary constraints
+        for (int i = 0; i < n; i++) {
+            double edge = Math.min(Math.min(x[i], width - x[i]), Math.min(y[i], height - y[i]));
+            if (edge < r[i]) {
+                scale = Math.min(scale, edge / r[i]);
+            }
+        }
+
+        // Pair constraints
+        if (broadPhase == BroadPhase.GRID) {
+            grid.rebuild(x, y, r, n, width, height);
+            for (int cell = 0; cell < grid.cellCount(); cell++) {
+                int end = grid.cellEnd(cell);
+                for (int a = grid.cellStart(cell); a < end; a++) {
+                    int i = grid.item(a);
+                    for (int b = a + 1; b < end; b++) {
+                        int j = grid.item(b);
+                        if (grid.ownsPair(cell, i, j)) {
+                            scale = Math.min(scale, pairScale(x, y, r, i, j));
+                        }
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    scale = Math.min(scale, pairScale(x, y, r, i, j));
+                }
+            }
+        }
+
+        if (!(scale > 0)) {
+            return -1;
+        }
+        if (scale >= 1) {
+            return 0;
+        }
+        // Keep a tiny margin so rounding cannot turn a touching pair into an overlap
+        scale *= 1 - 1e-12;
+        for (int i = 0; i < n; i++) {
+            r[i] *= scale;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the largest factor by which the radii of two circles can be scaled without overlap,
+     * or 1 if they do not overlap.
+     */
+    private static double pairScale(double[] x, double[] y, double[] r, int i, int j) {
+        double dx = x[j] - x[i];
+        double dy = y[j] - y[i];
+        double minDistance = r[i] + r[j];
+        if (dx * dx + dy * dy >= minDistance * minDistance) {
+            return 1;
+        }
+        return Math.hypot(dx, dy) / minDistance;
+    }
+
+    /**
+     * Keeps a circle within the bounds of the rectangle.
+     *
+     * @param x      The x-coordinates of the circles.
+     * @param y      The y-coordinates of the circles.
+     * @param r      The radii of the circles.
+     * @param i      Index of the circle to adjust.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     */
+    private static void keepCircleWithinBounds(double[] x, double[] y, double[] r, int i, double width, double height) {
+        double radius = r[i];
+        x[i] = Math.max(radius, Math.min(x[i], width - radius));
+        y[i] = Math.max(radius, Math.min(y[i], height - radius));
+    }
+
+    /**
+     * Sums the overlap area over every pair of circles. The result is positive exactly when at
+     * least one pair overlaps.
+     *
+     * @param x The x-coordinates of the circles.
+     * @param y The y-coordinates of the circles.
+     * @param r The radii of the circles.
+     * @param n The number of circles.
+     * @return Total overlap area.
+     */
+    static double totalOverlapArea(double[] x, double[] y, double[] r, int n) {
+        double totalOverlapArea = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double overlapArea = calculateOverlapArea(x[i], y[i], r[i], x[j], y[j], r[j]);
+                if (overlapArea > 0) {
+                    totalOverlapArea += overlapArea;
+                }
+            }
+        }
+        return totalOverlapArea;
+    }
+
+    /**
+     * Sums the overlap area over the candidate pairs reported by a grid. Pairs whose bounding
+     * boxes do not intersect cannot overlap, so the result equals
+     * {@link #totalOverlapArea(double[], double[], double[], int)} while the exact lens area is
+     * only computed for nearby pairs.
+     *
+     * @param x    The x-coordinates of the circles.
+     * @param y    The y-coordinates of the circles.
+     * @param r    The radii of the circles.
+     * @param grid Grid rebuilt from the current positions.
+     * @return Total overlap area.
+     */
+    static double totalOverlapArea(double[] x, double[] y, double[] r, SpatialGrid grid) {
+        double totalOverlapArea = 0;
+        for (int cell = 0; cell < grid.cellCount(); cell++) {
+            int end = grid.cellEnd(cell);
+            for (int a = grid.cellStart(cell); a < end; a++) {
+                int i = grid.item(a);
+                for (int b = a + 1; b < end; b++) {
+                    int j = grid.item(b);
+                    if (!grid.ownsPair(cell, i, j)) {
+                        continue;
+                    }
+                    double overlapArea = calculateOverlapArea(x[i], y[i], r[i], x[j], y[j], r[j]);
+                    if (overlapArea > 0) {
+                        totalOverlapArea += overlapArea;
+                    }
+                }
+            }
+        }
+        return totalOverlapArea;
+    }
+
+    /**
+     * Returns whether any candidate pair reported by a grid overlaps, stopping at the first one.
+     * Only distances are compared, so no lens area is computed.
+     *
+     * @param x    The x-coordinates of the circles.
+     * @param y    The y-coordinates of the circles.
+     * @param r    The radii of the circles.
+     * @param grid Grid rebuilt from the current positions.
+     * @return {@code true} if at least one pair overlaps.
+     */
+    static boolean anyOverlap(double[] x, double[] y, double[] r, SpatialGrid grid) {
+        for (int cell = 0; cell < grid.cellCount(); cell++) {
+            int end = grid.cellEnd(cell);
+            for (int a = grid.cellStart(cell); a < end; a++) {
+                int i = grid.item(a);
+                for (int b = a + 1; b < end; b++) {
+                    int j = grid.item(b);
+                    double dx = x[j] - x[i];
+                    double dy = y[j] - y[i];
+                    double minDistance = r[i] + r[j];
+                    // Any shared cell may report the pair, no deduplication needed
+                    if (dx * dx + dy * dy < minDistance * minDistance && Math.hypot(dx, dy) < minDistance) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculates the overlap area between two circles.
+     *
+     * @param x1 The x-coordinate of the first circle.
+     * @param y1 The y-coordinate of the first circle.
+     * @param r1 The radius of the first circle.
+     * @param x2 The x-coordinate of the second circle.
+     * @param y2 The y-coordinate of the second circle.
+     * @param r2 The radius of the second circle.
+     * @return Overlap area.
+     */
+    static double calculateOverlapArea(double x1, double y1, double r1, double x2, double y2, double r2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double distance = Math.hypot(dx, dy);
+
+        // No overlap
+        if (distance >= r1 + r2) {
+            return 0;
+        }
+
+        // One circle is completely inside the other
+        if (distance <= Math.abs(r1 - r2)) {
+            double smallerRadius = Math.min(r1, r2);
+            return Math.PI * smallerRadius * smallerRadius;
+        }
+
+        // Partial overlap
+        double part1 = r1 * r1 * Math.acos((distance * distance + r1 * r1 - r2 * r2) / (2 * distance * r1));
+        double part2 = r2 * r2 * Math.acos((distance * distance + r2 * r2 - r1 * r1) / (2 * distance * r2));
+        double part3 = 0.5 * Math.sqrt((-distance + r1 + r2) * (distance + r1 - r2) * (distance - r1 + r2) * (distance + r1 + r2));
+
+        return part1 + part2 - part3;
+    }
+}
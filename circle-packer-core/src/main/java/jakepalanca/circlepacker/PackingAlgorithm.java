@@ -0,0 +1,21 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Algorithm used by {@link Packing} to lay out circles.
+ */
+public enum PackingAlgorithm {
+
+    /**
+     * Places circles at random and pushes overlapping pairs apart for up to the requested
+     * number of iterations, then shrinks circles that still overlap or leave the rectangle.
+     */
+    RELAXATION,
+
+    /**
+     * Places circles one at a time tangent to the front chain of already placed circles
+     * (Wang et al., as used by d3-hierarchy), then scales the cluster uniformly to fit the
+     * rectangle. Never produces overlaps and keeps the radius ratios exact; the iteration
+     * limit is ignored.
+     */
+    FRONT_CHAIN
+}
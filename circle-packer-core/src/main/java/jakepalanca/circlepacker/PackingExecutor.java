@@ -0,0 +1,204 @@
+package jakepalanca.circlepacker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Optimizes many independent charts concurrently.
+ * <p>
+ * Each chart is optimized by a single task, so charts are spread across the threads of the
+ * executor while each individual layout is computed exactly as {@link Chart#optimize(int, PackingOptions)}
+ * would compute it. Scratch buffers (coordinate arrays, spatial grid and random source) are
+ * kept in a bounded pool owned by the executor: each task borrows one set and returns it when
+ * its chart is done, so a batch of small charts does not allocate them once per chart, and
+ * {@link #close()} releases them.
+ * </p>
+ * <p>
+ * A chart must not be modified or optimized elsewhere while a task for it is pending, and the
+ * same chart should not be submitted twice in one batch. Because the batch is already parallel
+ * across charts, {@link SolverMode#SEQUENTIAL} is usually the better choice for the options.
+ * </p>
+ * <pre>{@code
+ * try (PackingExecutor executor = new PackingExecutor()) {
+ *     executor.submitAll(charts, 100, options).forEach(CompletableFuture::join);
+ * }
+ * }</pre>
+ */
+public class PackingExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final BlockingQueue<PackingWorkspace> workspaces;
+    private volatile boolean closed;
+
+    /**
+     * Creates an executor backed by a fixed pool with one thread per available processor.
+     */
+    public PackingExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an executor backed by a fixed pool of the given size.
+     *
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public PackingExecutor(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "circle-packer-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ownsExecutor = true;
+        this.workspaces = new ArrayBlockingQueue<>(threads);
+    }
+
+    /**
+     * Creates an executor that schedules charts on an existing executor service. The service is
+     * not shut down by {@link #close()}. At most one set of scratch buffers per available
+     * processor is kept between tasks.
+     *
+     * @param executor the executor service running the packing tasks
+     * @throws IllegalArgumentException if the executor service is null
+     */
+    public PackingExecutor(ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor service cannot be null");
+        }
+        this.executor = executor;
+        this.ownsExecutor = false;
+        this.workspaces = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Schedules the optimization of a chart.
+     *
+     * @param chart         the chart to optimize
+     * @param maxIterations the maximum number of iterations allowed for the optimization process
+     * @param options       the options controlling the packing algorithm
+     * @return a future completed with the result, or exceptionally if the optimization fails
+     * @throws IllegalArgumentException if the chart or options are null
+     */
+    public CompletableFuture<PackingResult<Packable>> submit(Chart chart, int maxIterations, PackingOptions options) {
+        return schedule(chart, maxIterations, options, null);
+    }
+
+    /**
+     * Schedules the optimization of every chart in a batch.
+     *
+     * @param charts        the charts to optimize
+     * @param maxIterations the maximum number of iterations allowed for each optimization
+     * @param options       the options controlling the packing algorithm, shared by all charts
+     * @return one future per chart, in the order of the input list
+     * @throws IllegalArgumentException if the list, any chart or the options are null
+     */
+    public List<CompletableFuture<PackingResult<Packable>>> submitAll(List<Chart> charts, int maxIterations,
+                                                                      PackingOptions options) {
+        if (charts == null) {
+            throw new IllegalArgumentException("Charts cannot be null");
+        }
+        List<CompletableFuture<PackingResult<Packable>>> futures = new ArrayList<>(charts.size());
+        for (Chart chart : charts) {
+            futures.add(submit(chart, maxIterations, options));
+        }
+        return futures;
+    }
+
+    /**
+     * Optimizes every chart in a batch and streams each result to a callback as soon as its
+     * chart is done. The callback runs on the worker thread that optimized the chart, possibly
+     * concurrently with other invocations, so it must be thread-safe.
+     *
+     * @param charts        the charts to optimize
+     * @param maxIterations the maximum number of iterations allowed for each optimization
+     * @param options       the options controlling the packing algorithm, shared by all charts
+     * @param onResult      receives each chart together with its result
+     * @return a future completed once every chart has been optimized and reported, or
+     *         exceptionally if any optimization or callback fails
+     * @throws IllegalArgumentException if the list, any chart, the options or the callback are null
+     */
+    public CompletableFuture<Void> packAll(List<Chart> charts, int maxIterations, PackingOptions options,
+                                           BiConsumer<Chart, PackingResult<Packable>> onResult) {
+        if (charts == null) {
+            throw new IllegalArgumentException("Charts cannot be null");
+        }
+        if (onResult == null) {
+            throw new IllegalArgumentException("Result callback cannot be null");
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[charts.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = schedule(charts.get(i), maxIterations, options, onResult);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Schedules a task that optimizes a chart with a workspace borrowed from the pool, or a new
+     * one if the pool is empty.
+     *
+     * @param onResult callback invoked by the task with the result, or {@code null}
+     */
+    private CompletableFuture<PackingResult<Packable>> schedule(Chart chart, int maxIterations, PackingOptions options,
+                                                                BiConsumer<Chart, PackingResult<Packable>> onResult) {
+        if (chart == null) {
+            throw new IllegalArgumentException("Chart cannot be null");
+        }
+        if (options == null) {
+            throw new IllegalArgumentException("Packing options cannot be null.");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            PackingWorkspace workspace = workspaces.poll();
+            if (workspace == null) {
+                workspace = new PackingWorkspace();
+            }
+            PackingResult<Packable> result;
+            try {
+                result = chart.optimize(maxIterations, options, workspace);
+            } finally {
+                // A full pool or a closed executor drops the workspace
+                if (!closed && workspaces.offer(workspace) && closed) {
+                    workspaces.remove(workspace);
+                }
+            }
+            if (onResult != null) {
+                onResult.accept(chart, result);
+            }
+            return result;
+        }, executor);
+    }
+
+    /**
+     * Returns the number of workspaces kept for reuse.
+     *
+     * @return the pool size
+     */
+    int pooledWorkspaces() {
+        return workspaces.size();
+    }
+
+    /**
+     * Releases the pooled scratch buffers and shuts down the thread pool created by this
+     * executor. Pending charts are still optimized, with buffers of their own. An existing
+     * executor service passed to the constructor is left running.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workspaces.clear();
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Receives notifications while a packing run executes, for example to feed a metrics pipeline.
+ * Register one with {@link PackingOptions#setListener(PackingListener)}; it is then invoked by
+ * {@link Packing}, {@link Chart} and {@link PackingExecutor} runs using those options. Every
+ * method has an empty default implementation, so implementations only override what they need.
+ * <p>
+ * Callbacks run synchronously on the thread performing the run, so they should return quickly.
+ * A listener shared by runs on several threads, such as the charts of a {@link PackingExecutor},
+ * must be thread-safe. When no listener is registered, the runs do no extra work.
+ * </p>
+ *
+ * @see JfrPackingListener
+ */
+public interface PackingListener {
+
+    /**
+     * Called once the rectangle of a run has been validated, before any circle is placed.
+     *
+     * @param width       the width of the rectangle
+     * @param height      the height of the rectangle
+     * @param circleCount the number of circles in the run
+     */
+    default void onStart(double width, double height, int circleCount) {
+    }
+
+    /**
+     * Called at the end of each phase that runs. A phase may be reported more than once.
+     *
+     * @param phase the phase that finished
+     * @param nanos the time spent in the phase, in nanoseconds
+     */
+    default void onPhaseEnd(PackingPhase phase, long nanos) {
+    }
+
+    /**
+     * Called after every {@link #getIterationInterval()}-th relaxation sweep.
+     *
+     * @param stats the measurements of the sweep
+     */
+    default void onIteration(IterationStats stats) {
+    }
+
+    /**
+     * Called after {@link #onIteration(IterationStats)} with a live view of the layout, for
+     * example to draw intermediate frames. The view is only valid during the call.
+     *
+     * @param progress the state of the run after the sweep
+     */
+    default void onProgress(PackingProgress progress) {
+    }
+
+    /**
+     * Called with the result once the run has finished and the packables hold the final layout.
+     *
+     * @param result the result of the run
+     */
+    default void onComplete(PackingResult<Packable> result) {
+    }
+
+    /**
+     * Returns how often {@link #onIteration(IterationStats)} and
+     * {@link #onProgress(PackingProgress)} are called, in sweeps. Read once at
+     * the start of each run. Return 0 or less to receive no iteration callbacks.
+     *
+     * @return the iteration interval, 1 by default
+     */
+    default int getIterationInterval() {
+        return 1;
+    }
+}
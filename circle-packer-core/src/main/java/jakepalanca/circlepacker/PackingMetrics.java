@@ -0,0 +1,107 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Timing and work counters of a packing run.
+ */
+public final class PackingMetrics {
+
+    private static final PackingPhase[] PHASES = PackingPhase.values();
+
+    private final long totalNanos;
+    private final long[] phaseNanos;
+    private final long pairTests;
+    private final long overlapsResolved;
+    private final long radiusAdjustments;
+
+    /**
+     * Constructs the metrics of a run.
+     *
+     * @param totalNanos        the wall-clock duration of the whole run, in nanoseconds
+     * @param phaseNanos        the time spent in each phase, indexed by {@link PackingPhase#ordinal()}
+     * @param pairTests         the number of candidate pairs tested for overlap during relaxation
+     * @param overlapsResolved  the number of overlapping pairs pushed apart during relaxation
+     * @param radiusAdjustments the number of times a circle was shrunk after relaxation
+     * @throws IllegalArgumentException if {@code phaseNanos} does not have one entry per phase
+     */
+    public PackingMetrics(long totalNanos, long[] phaseNanos, long pairTests, long overlapsResolved,
+                          long radiusAdjustments) {
+        if (phaseNanos == null || phaseNanos.length != PHASES.length) {
+            throw new IllegalArgumentException("Phase timings must have one entry per packing phase");
+        }
+        this.totalNanos = totalNanos;
+        this.phaseNanos = phaseNanos.clone();
+        this.pairTests = pairTests;
+        this.overlapsResolved = overlapsResolved;
+        this.radiusAdjustments = radiusAdjustments;
+    }
+
+    /**
+     * Creates metrics that only know the total duration, with zero phase timings and counters.
+     *
+     * @param totalNanos the wall-clock duration of the whole run, in nanoseconds
+     * @return the metrics
+     */
+    static PackingMetrics ofTotal(long totalNanos) {
+        return new PackingMetrics(totalNanos, new long[PHASES.length], 0, 0, 0);
+    }
+
+    /**
+     * Returns the wall-clock duration of the whole run.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the time spent in one phase of the run.
+     *
+     * @param phase the phase
+     * @return the duration in nanoseconds, 0 if the phase did not run
+     */
+    public long getPhaseNanos(PackingPhase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Returns the number of candidate pairs tested for overlap during relaxation.
+     *
+     * @return the pair test count
+     */
+    public long getPairTests() {
+        return pairTests;
+    }
+
+    /**
+     * Returns the number of overlapping pairs pushed apart during relaxation. A pair that
+     * overlaps in several sweeps is counted once per sweep.
+     *
+     * @return the resolved overlap count
+     */
+    public long getOverlapsResolved() {
+        return overlapsResolved;
+    }
+
+    /**
+     * Returns the number of times a circle was shrunk after relaxation. A uniform scale counts
+     * once per circle; the geometric shrink counts every 5% step.
+     *
+     * @return the radius adjustment count
+     */
+    public long getRadiusAdjustments() {
+        return radiusAdjustments;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PackingMetrics{totalNanos=").append(totalNanos);
+        for (PackingPhase phase : PHASES) {
+            sb.append(", ").append(phase).append('=').append(phaseNanos[phase.ordinal()]);
+        }
+        return sb.append(", pairTests=").append(pairTests)
+                .append(", overlapsResolved=").append(overlapsResolved)
+                .append(", radiusAdjustments=").append(radiusAdjustments)
+                .append('}').toString();
+    }
+}
@@ -0,0 +1,361 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Optional settings that control how {@link Packing} lays out circles. A freshly constructed
+ * instance holds the defaults used by the overloads that do not take options.
+ */
+public class PackingOptions {
+
+    private PackingAlgorithm algorithm = PackingAlgorithm.RELAXATION;
+    private BroadPhase broadPhase = BroadPhase.GRID;
+    private SolverMode solverMode = SolverMode.SEQUENTIAL;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private ShrinkMode shrinkMode = ShrinkMode.GEOMETRIC;
+    private boolean warmStart;
+    private double displacementTolerance;
+    private double overlapTolerance;
+    private int stallSweeps;
+    private boolean traceEnabled;
+    private boolean overlapAreaComputed = true;
+    private LayoutCache layoutCache;
+    private Long seed;
+    private PackingListener listener;
+    private CancellationToken cancellationToken;
+
+    /**
+     * Returns the algorithm used to lay out the circles.
+     *
+     * @return the packing algorithm
+     */
+    public PackingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Sets the algorithm used to lay out the circles. The broad phase and solver mode only
+     * apply to {@link PackingAlgorithm#RELAXATION}.
+     *
+     * @param algorithm the packing algorithm
+     * @throws IllegalArgumentException if the algorithm is null
+     */
+    public void setAlgorithm(PackingAlgorithm algorithm) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Packing algorithm cannot be null");
+        }
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Returns the strategy used to find candidate overlapping pairs.
+     *
+     * @return the broad-phase strategy
+     */
+    public BroadPhase getBroadPhase() {
+        return broadPhase;
+    }
+
+    /**
+     * Sets the strategy used to find candidate overlapping pairs.
+     *
+     * @param broadPhase the broad-phase strategy
+     * @throws IllegalArgumentException if the strategy is null
+     */
+    public void setBroadPhase(BroadPhase broadPhase) {
+        if (broadPhase == null) {
+            throw new IllegalArgumentException("Broad phase cannot be null");
+        }
+        this.broadPhase = broadPhase;
+    }
+
+    /**
+     * Returns how the relaxation sweeps are executed.
+     *
+     * @return the solver mode
+     */
+    public SolverMode getSolverMode() {
+        return solverMode;
+    }
+
+    /**
+     * Sets how the relaxation sweeps are executed. {@link SolverMode#PARALLEL} always uses the
+     * grid broad phase, regardless of {@link #getBroadPhase()}.
+     *
+     * @param solverMode the solver mode
+     * @throws IllegalArgumentException if the solver mode is null
+     */
+    public void setSolverMode(SolverMode solverMode) {
+        if (solverMode == null) {
+            throw new IllegalArgumentException("Solver mode cannot be null");
+        }
+        this.solverMode = solverMode;
+    }
+
+    /**
+     * Returns the number of worker threads used by {@link SolverMode#PARALLEL}.
+     *
+     * @return the parallelism level
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of worker threads used by {@link SolverMode#PARALLEL}. Defaults to the
+     * number of available processors.
+     *
+     * @param parallelism the parallelism level
+     * @throws IllegalArgumentException if the parallelism level is not positive
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the strategy used to shrink circles after relaxation.
+     *
+     * @return the shrink mode
+     */
+    public ShrinkMode getShrinkMode() {
+        return shrinkMode;
+    }
+
+    /**
+     * Sets the strategy used to shrink circles after relaxation.
+     *
+     * @param shrinkMode the shrink mode
+     * @throws IllegalArgumentException if the shrink mode is null
+     */
+    public void setShrinkMode(ShrinkMode shrinkMode) {
+        if (shrinkMode == null) {
+            throw new IllegalArgumentException("Shrink mode cannot be null");
+        }
+        this.shrinkMode = shrinkMode;
+    }
+
+    /**
+     * Returns whether relaxation starts from the positions the circles already have.
+     *
+     * @return {@code true} if warm start is enabled
+     */
+    public boolean isWarmStart() {
+        return warmStart;
+    }
+
+    /**
+     * Sets whether relaxation starts from the positions the circles already have instead of a
+     * random placement. Radii are recomputed from the current radius ratios using the
+     * area-per-ratio scale of the previous layout, taken as the median of the circles' squared
+     * radius over their ratio, so circles whose ratio did not change keep their radii as long as
+     * most ratios are unchanged; circles with no previous layout (a non-positive radius or
+     * non-finite coordinates) are placed at random.
+     * Relaxation then stops as soon as a sweep finds no overlap, so a layout that only changed
+     * slightly converges in a few iterations and stays visually stable. Only applies to
+     * {@link PackingAlgorithm#RELAXATION}.
+     *
+     * @param warmStart whether to reuse existing positions
+     */
+    public void setWarmStart(boolean warmStart) {
+        this.warmStart = warmStart;
+    }
+
+    /**
+     * Returns the displacement below which relaxation is considered converged.
+     *
+     * @return the displacement tolerance, or 0 if the criterion is disabled
+     */
+    public double getDisplacementTolerance() {
+        return displacementTolerance;
+    }
+
+    /**
+     * Sets the displacement below which relaxation is considered converged. Relaxation stops
+     * with {@link TerminationReason#DISPLACEMENT_CONVERGED} after a sweep whose largest push is
+     * shorter than this distance. Set to 0, the default, to disable the criterion.
+     *
+     * @param displacementTolerance the displacement tolerance, in the units of the rectangle
+     * @throws IllegalArgumentException if the tolerance is negative or not finite
+     */
+    public void setDisplacementTolerance(double displacementTolerance) {
+        if (!(displacementTolerance >= 0) || Double.isInfinite(displacementTolerance)) {
+            throw new IllegalArgumentException("Displacement tolerance must be a non-negative finite number");
+        }
+        this.displacementTolerance = displacementTolerance;
+    }
+
+    /**
+     * Returns the total overlap at or below which relaxation is considered converged.
+     *
+     * @return the overlap tolerance, or 0 if the criterion is disabled
+     */
+    public double getOverlapTolerance() {
+        return overlapTolerance;
+    }
+
+    /**
+     * Sets the total overlap at or below which relaxation is considered converged. Relaxation
+     * stops with {@link TerminationReason#OVERLAP_CONVERGED} after a sweep whose summed
+     * penetration depth ({@code r1 + r2 - d} over overlapping pairs) is at most this value. Set
+     * to 0, the default, to disable the criterion.
+     *
+     * @param overlapTolerance the overlap tolerance, in the units of the rectangle
+     * @throws IllegalArgumentException if the tolerance is negative or not finite
+     */
+    public void setOverlapTolerance(double overlapTolerance) {
+        if (!(overlapTolerance >= 0) || Double.isInfinite(overlapTolerance)) {
+            throw new IllegalArgumentException("Overlap tolerance must be a non-negative finite number");
+        }
+        this.overlapTolerance = overlapTolerance;
+    }
+
+    /**
+     * Returns the number of sweeps without improvement after which relaxation stops.
+     *
+     * @return the stall window, or 0 if the criterion is disabled
+     */
+    public int getStallSweeps() {
+        return stallSweeps;
+    }
+
+    /**
+     * Sets the number of consecutive sweeps without improvement after which relaxation stops
+     * with {@link TerminationReason#STALLED}. A sweep improves when its summed penetration depth
+     * is lower than the best seen so far. Set to 0, the default, to disable the criterion.
+     *
+     * @param stallSweeps the stall window
+     * @throws IllegalArgumentException if the window is negative
+     */
+    public void setStallSweeps(int stallSweeps) {
+        if (stallSweeps < 0) {
+            throw new IllegalArgumentException("Stall sweeps cannot be negative");
+        }
+        this.stallSweeps = stallSweeps;
+    }
+
+    /**
+     * Returns whether per-sweep measurements are recorded.
+     *
+     * @return {@code true} if tracing is enabled
+     */
+    public boolean isTraceEnabled() {
+        return traceEnabled;
+    }
+
+    /**
+     * Sets whether per-sweep measurements are recorded and returned by
+     * {@link PackingResult#getTrace()}. Disabled by default.
+     *
+     * @param traceEnabled whether to record a trace
+     */
+    public void setTraceEnabled(boolean traceEnabled) {
+        this.traceEnabled = traceEnabled;
+    }
+
+    /**
+     * Returns whether the total overlap area of the final layout is computed.
+     *
+     * @return {@code true} if the overlap area is computed
+     */
+    public boolean isOverlapAreaComputed() {
+        return overlapAreaComputed;
+    }
+
+    /**
+     * Sets whether the total overlap area of the final layout is computed. When disabled, the
+     * final check only tests whether any pair overlaps, stopping at the first one found, and
+     * {@link PackingResult#getTotalOverlapArea()} returns {@link Double#NaN}. Enabled by default.
+     *
+     * @param overlapAreaComputed whether to compute the overlap area
+     */
+    public void setOverlapAreaComputed(boolean overlapAreaComputed) {
+        this.overlapAreaComputed = overlapAreaComputed;
+    }
+
+    /**
+     * Returns the cache consulted before computing a layout.
+     *
+     * @return the layout cache, or {@code null} if caching is disabled
+     */
+    public LayoutCache getLayoutCache() {
+        return layoutCache;
+    }
+
+    /**
+     * Sets the cache consulted before computing a layout. A run whose dimensions, iteration
+     * limit, options and radius ratios match a cached layout reuses it instead of packing again.
+     * Warm-started and time-budgeted runs are never cached, since their layouts depend on the
+     * previous positions and on the speed of the machine. Set to {@code null}, the default, to
+     * disable caching.
+     *
+     * @param layoutCache the layout cache, or {@code null}
+     */
+    public void setLayoutCache(LayoutCache layoutCache) {
+        this.layoutCache = layoutCache;
+    }
+
+    /**
+     * Returns the seed of the random source used for placement and for separating coincident
+     * circles.
+     *
+     * @return the seed, or {@code null} if runs are not reproducible
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the random source used for placement and for separating coincident
+     * circles. Two runs with the same seed, options and circles, in the same order, produce the
+     * same layout; with {@link SolverMode#PARALLEL} this holds for any parallelism level. Set to
+     * {@code null}, the default, to draw an independent stream for every run.
+     *
+     * @param seed the seed, or {@code null}
+     */
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the listener notified of the progress of each run.
+     *
+     * @return the listener, or {@code null} if none is registered
+     */
+    public PackingListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the listener notified when a run starts, at each phase boundary, periodically during
+     * relaxation and when it completes. Incremental updates through {@link Chart} notify the
+     * listener of the options used for the last full optimization. Set to {@code null}, the
+     * default, to disable notifications.
+     *
+     * @param listener the listener, or {@code null}
+     * @see JfrPackingListener
+     */
+    public void setListener(PackingListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the token checked between relaxation sweeps.
+     *
+     * @return the cancellation token, or {@code null} if none is registered
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Sets the token checked between relaxation sweeps. Once it is cancelled, runs using these
+     * options stop at their next check and return a partial result. Runs also stop when their
+     * thread is interrupted, with or without a token.
+     *
+     * @param cancellationToken the cancellation token, or {@code null}
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+}
@@ -0,0 +1,40 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Stages of a packing run, in the order they execute. The time spent in each is available from
+ * {@link PackingResult#getPhaseNanos(PackingPhase)}.
+ */
+public enum PackingPhase {
+
+    /**
+     * Validating the input, gathering radius ratios, sizing the circles and placing them
+     * initially. Also covers the layout cache lookup.
+     */
+    INIT,
+
+    /**
+     * Relaxation sweeps, or building the cluster for {@link PackingAlgorithm#FRONT_CHAIN}.
+     */
+    RELAX,
+
+    /**
+     * Shrinking circles that still overlap or leave the rectangle, or scaling the front-chain
+     * cluster into the rectangle.
+     */
+    SHRINK,
+
+    /**
+     * Moving circles back inside the rectangle.
+     */
+    CLAMP,
+
+    /**
+     * Checking the final layout for overlaps and computing the total overlap area.
+     */
+    VERIFY,
+
+    /**
+     * Writing positions and radii back to the packables.
+     */
+    WRITE_BACK
+}
@@ -0,0 +1,121 @@
+package jakepalanca.circlepacker;
+
+import java.util.Objects;
+
+/**
+ * Live view of a relaxation run, passed to {@link PackingListener#onProgress(PackingProgress)}.
+ * <p>
+ * The view reads the solver's working arrays directly, so it is only valid during the callback
+ * and must not be kept. Circles are indexed like the list passed to {@link Packing}. Positions
+ * are those reached after the reported sweep and radii are the unshrunk starting radii, so the
+ * circles may still overlap; copy what is needed, for example to draw an intermediate frame.
+ * </p>
+ */
+public final class PackingProgress {
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] r;
+    private final int n;
+    private final int maxIterations;
+    private IterationStats stats;
+
+    /**
+     * Creates a view over the working arrays of a run.
+     *
+     * @param x             the x-coordinates of the circles
+     * @param y             the y-coordinates of the circles
+     * @param r             the radii of the circles
+     * @param n             the number of circles
+     * @param maxIterations the iteration limit of the run
+     */
+    PackingProgress(double[] x, double[] y, double[] r, int n, int maxIterations) {
+        this.x = x;
+        this.y = y;
+        this.r = r;
+        this.n = n;
+        this.maxIterations = maxIterations;
+    }
+
+    void setStats(IterationStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Returns the measurements of the sweep that was just completed.
+     *
+     * @return the iteration statistics
+     */
+    public IterationStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns the iteration limit of the run, {@link Integer#MAX_VALUE} for a time-budgeted run.
+     *
+     * @return the maximum number of sweeps
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Returns the number of circles being packed.
+     *
+     * @return the circle count
+     */
+    public int getCircleCount() {
+        return n;
+    }
+
+    /**
+     * Returns the current x-coordinate of a circle.
+     *
+     * @param index the index of the circle
+     * @return the x-coordinate of its center
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getX(int index) {
+        return x[Objects.checkIndex(index, n)];
+    }
+
+    /**
+     * Returns the current y-coordinate of a circle.
+     *
+     * @param index the index of the circle
+     * @return the y-coordinate of its center
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getY(int index) {
+        return y[Objects.checkIndex(index, n)];
+    }
+
+    /**
+     * Returns the current radius of a circle.
+     *
+     * @param index the index of the circle
+     * @return its radius
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getRadius(int index) {
+        return r[Objects.checkIndex(index, n)];
+    }
+
+    /**
+     * Copies the current layout into caller-owned arrays.
+     *
+     * @param outX receives the x-coordinates
+     * @param outY receives the y-coordinates
+     * @param outR receives the radii
+     * @throws IllegalArgumentException if an array is null or shorter than {@link #getCircleCount()}
+     */
+    public void copyLayout(double[] outX, double[] outY, double[] outR) {
+        if (outX == null || outY == null || outR == null
+                || outX.length < n || outY.length < n || outR.length < n) {
+            throw new IllegalArgumentException("Output arrays must hold every circle");
+        }
+        System.arraycopy(x, 0, outX, 0, n);
+        System.arraycopy(y, 0, outY, 0, n);
+        System.arraycopy(r, 0, outR, 0, n);
+    }
+}
@@ -0,0 +1,211 @@
+package jakepalanca.circlepacker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the result of the circle packing algorithm. This class contains details about
+ * the outcome of the packing process, such as the final arrangement of packable objects,
+ * computation time, number of iterations, and overlap information.
+ *
+ * @param <T> The type of objects that implement {@link Packable}.
+ */
+public class PackingResult<T extends Packable> {
+
+    private final List<T> packables;
+    private final long computationTime; // in milliseconds
+    private final int iterations;
+    private final boolean overlapsExist;
+    private final double totalOverlapArea;
+    private final int adjustmentsMade;
+    private final TerminationReason terminationReason;
+    private final List<IterationStats> trace;
+    private final PackingMetrics metrics;
+
+    /**
+     * Constructs a new PackingResult with the given details.
+     *
+     * @param packables        the list of packed objects
+     * @param computationTime  the time taken to perform the packing algorithm, in milliseconds
+     * @param iterations       the number of iterations performed during the packing process
+     * @param overlapsExist    whether any overlaps between objects still exist after packing
+     * @param totalOverlapArea the total area of overlaps between objects, if any
+     * @param adjustmentsMade  the number of adjustments made during the packing process
+     */
+    public PackingResult(List<T> packables, long computationTime, int iterations, boolean overlapsExist, double totalOverlapArea, int adjustmentsMade) {
+        this(packables, computationTime, iterations, overlapsExist, totalOverlapArea, adjustmentsMade, null,
+                Collections.emptyList());
+    }
+
+    /**
+     * Constructs a new PackingResult with the given details, termination reason and trace. The
+     * metrics only record the computation time.
+     *
+     * @param packables         the list of packed objects
+     * @param computationTime   the time taken to perform the packing algorithm, in milliseconds
+     * @param iterations        the number of iterations performed during the packing process
+     * @param overlapsExist     whether any overlaps between objects still exist after packing
+     * @param totalOverlapArea  the total area of overlaps between objects, if any
+     * @param adjustmentsMade   the number of adjustments made during the packing process
+     * @param terminationReason why the relaxation stopped, or {@code null} if unknown
+     * @param trace             the per-iteration measurements, empty if none were recorded
+     */
+    public PackingResult(List<T> packables, long computationTime, int iterations, boolean overlapsExist,
+                         double totalOverlapArea, int adjustmentsMade, TerminationReason terminationReason,
+                         List<IterationStats> trace) {
+        this(packables, computationTime, iterations, overlapsExist, totalOverlapArea, adjustmentsMade,
+                terminationReason, trace, PackingMetrics.ofTotal(computationTime * 1_000_000L));
+    }
+
+    /**
+     * Constructs a new PackingResult with the given details, termination reason, trace and metrics.
+     *
+     * @param packables         the list of packed objects
+     * @param computationTime   the time taken to perform the packing algorithm, in milliseconds
+     * @param iterations        the number of iterations performed during the packing process
+     * @param overlapsExist     whether any overlaps between objects still exist after packing
+     * @param totalOverlapArea  the total area of overlaps between objects, if any
+     * @param adjustmentsMade   the number of adjustments made during the packing process
+     * @param terminationReason why the relaxation stopped, or {@code null} if unknown
+     * @param trace             the per-iteration measurements, empty if none were recorded
+     * @param metrics           the phase timings and work counters of the run
+     */
+    public PackingResult(List<T> packables, long computationTime, int iterations, boolean overlapsExist,
+                         double totalOverlapArea, int adjustmentsMade, TerminationReason terminationReason,
+                         List<IterationStats> trace, PackingMetrics metrics) {
+        this.packables = packables;
+        this.computationTime = computationTime;
+        this.iterations = iterations;
+        this.overlapsExist = overlapsExist;
+        this.totalOverlapArea = totalOverlapArea;
+        this.adjustmentsMade = adjustmentsMade;
+        this.terminationReason = terminationReason;
+        this.trace = trace;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the list of packed objects.
+     *
+     * @return the list of packables
+     */
+    public List<T> getPackables() {
+        return packables;
+    }
+
+    /**
+     * Returns the time taken for the packing computation in milliseconds.
+     *
+     * @return the computation time in milliseconds
+     * @see #getComputationTimeNanos()
+     */
+    public long getComputationTime() {
+        return computationTime;
+    }
+
+    /**
+     * Returns the time taken for the whole packing run, from validation to write-back.
+     *
+     * @return the computation time in nanoseconds
+     */
+    public long getComputationTimeNanos() {
+        return metrics.getTotalNanos();
+    }
+
+    /**
+     * Returns the time spent in one phase of the packing run.
+     *
+     * @param phase the phase
+     * @return the duration in nanoseconds, 0 if the phase did not run or was not measured
+     */
+    public long getPhaseNanos(PackingPhase phase) {
+        return metrics.getPhaseNanos(phase);
+    }
+
+    /**
+     * Returns the phase timings and work counters of the packing run.
+     *
+     * @return the metrics
+     */
+    public PackingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of iterations performed during the packing process.
+     *
+     * @return the number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns whether any overlaps still exist between the packed objects after the optimization.
+     *
+     * @return {@code true} if overlaps exist, {@code false} otherwise
+     */
+    public boolean isOverlapsExist() {
+        return overlapsExist;
+    }
+
+    /**
+     * Returns the total area of overlaps between objects.
+     *
+     * @return the total overlap area, or {@link Double#NaN} if it was not computed
+     * @see PackingOptions#setOverlapAreaComputed(boolean)
+     */
+    public double getTotalOverlapArea() {
+        return totalOverlapArea;
+    }
+
+    /**
+     * Returns the number of adjustments made during the packing process.
+     *
+     * @return the number of adjustments made
+     */
+    public int getAdjustmentsMade() {
+        return adjustmentsMade;
+    }
+
+    /**
+     * Returns why the relaxation stopped.
+     *
+     * @return the termination reason, or {@code null} if the result was built without one
+     */
+    public TerminationReason getTerminationReason() {
+        return terminationReason;
+    }
+
+    /**
+     * Returns whether relaxation was stopped by the iteration limit, time budget or cancellation
+     * before it converged. Unless the run was cancelled, the layout is still free of overlaps
+     * after the shrink step, but circles may be smaller than a longer run would have made them.
+     *
+     * @return {@code true} if the run was cut short, {@code false} if it converged or the result
+     *         was built without a termination reason
+     */
+    public boolean isCutShort() {
+        return terminationReason != null && terminationReason.isCutShort();
+    }
+
+    /**
+     * Returns whether the run was cancelled. The packables then hold the partial layout reached
+     * when the run stopped, which may contain overlaps.
+     *
+     * @return {@code true} if the termination reason is {@link TerminationReason#CANCELLED}
+     */
+    public boolean isCancelled() {
+        return terminationReason == TerminationReason.CANCELLED;
+    }
+
+    /**
+     * Returns the measurements recorded after each iteration. The list is empty unless
+     * {@link PackingOptions#isTraceEnabled()} was set.
+     *
+     * @return the per-iteration trace
+     */
+    public List<IterationStats> getTrace() {
+        return trace;
+    }
+}
@@ -0,0 +1,206 @@
+package jakepalanca.circlepacker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * State collected while a single packing run executes and later copied into its
+ * {@link PackingResult}. Also forwards the progress of the run to its listener, if any.
+ */
+final class PackingRun {
+
+    int iterations;
+    TerminationReason terminationReason = TerminationReason.MAX_ITERATIONS;
+    final List<IterationStats> trace;
+
+    long pairTests;
+    long overlapsResolved;
+    long radiusAdjustments;
+
+    private final PackingListener listener;
+    private final CancellationToken cancellationToken;
+    private PackingProgress progress;
+    private final int iterationInterval;
+    private final long startNanos;
+    private long deadlineNanos = Long.MAX_VALUE;
+    private final long[] phaseNanos = new long[PackingPhase.values().length];
+    private long phaseStart;
+
+    /**
+     * Creates the state for a run and starts its clock.
+     *
+     * @param traceEnabled      whether per-sweep measurements are recorded
+     * @param listener          the listener notified of progress, or {@code null}
+     * @param cancellationToken the token checked by {@link #isCancelled()}, or {@code null}
+     */
+    PackingRun(boolean traceEnabled, PackingListener listener, CancellationToken cancellationToken) {
+        this.trace = traceEnabled ? new ArrayList<>() : null;
+        this.listener = listener;
+        this.cancellationToken = cancellationToken;
+        this.iterationInterval = listener != null ? listener.getIterationInterval() : 0;
+        this.startNanos = System.nanoTime();
+        this.phaseStart = startNanos;
+    }
+
+    /**
+     * Limits the run to a time budget counted from its start.
+     *
+     * @param budgetNanos the budget in nanoseconds
+     */
+    void setTimeBudget(long budgetNanos) {
+        long deadline = startNanos + budgetNanos;
+        // Saturate instead of wrapping for very large budgets
+        deadlineNanos = deadline < startNanos ? Long.MAX_VALUE : deadline;
+    }
+
+    /**
+     * Returns whether the run has a time budget.
+     *
+     * @return {@code true} if a deadline is set
+     */
+    boolean hasDeadline() {
+        return deadlineNanos != Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} value at which the time budget runs out.
+     *
+     * @return the deadline, or {@link Long#MAX_VALUE} if there is none
+     */
+    long deadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Returns whether the run should stop, because its token was cancelled or its thread was
+     * interrupted. The interrupt status is left set for the caller.
+     *
+     * @return {@code true} if the run is cancelled
+     */
+    boolean isCancelled() {
+        return (cancellationToken != null && cancellationToken.isCancelled())
+                || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Exposes the working arrays of the solver to the listener's progress callback.
+     *
+     * @param x             the x-coordinates of the circles
+     * @param y             the y-coordinates of the circles
+     * @param r             the radii of the circles
+     * @param n             the number of circles
+     * @param maxIterations the iteration limit of the run
+     */
+    void trackLayout(double[] x, double[] y, double[] r, int n, int maxIterations) {
+        if (iterationInterval > 0) {
+            progress = new PackingProgress(x, y, r, n, maxIterations);
+        }
+    }
+
+    /**
+     * Notifies the listener that the run has started.
+     *
+     * @param width       the width of the rectangle
+     * @param height      the height of the rectangle
+     * @param circleCount the number of circles
+     */
+    void start(double width, double height, int circleCount) {
+        if (listener != null) {
+            listener.onStart(width, height, circleCount);
+        }
+    }
+
+    /**
+     * Charges the time since the end of the previous phase to {@code phase}.
+     *
+     * @param phase the phase that just finished
+     */
+    void endPhase(PackingPhase phase) {
+        long now = System.nanoTime();
+        long nanos = now - phaseStart;
+        phaseNanos[phase.ordinal()] += nanos;
+        phaseStart = now;
+        if (listener != null) {
+            listener.onPhaseEnd(phase, nanos);
+        }
+    }
+
+    /**
+     * Returns whether the measurements of a sweep are needed, for the trace or the listener.
+     *
+     * @param iteration the one-based index of the sweep
+     * @return {@code true} if {@link #recordIteration(IterationStats)} should be called
+     */
+    boolean wantsIteration(int iteration) {
+        return trace != null || (iterationInterval > 0 && iteration % iterationInterval == 0);
+    }
+
+    /**
+     * Adds the measurements of a sweep to the trace and reports them to the listener, as
+     * configured.
+     *
+     * @param stats the measurements of the sweep
+     */
+    void recordIteration(IterationStats stats) {
+        if (trace != null) {
+            trace.add(stats);
+        }
+        if (iterationInterval > 0 && stats.getIteration() % iterationInterval == 0) {
+            listener.onIteration(stats);
+            if (progress != null) {
+                progress.setStats(stats);
+                listener.onProgress(progress);
+            }
+        }
+    }
+
+    /**
+     * Notifies the listener that the run has finished.
+     *
+     * @param result the result of the run
+     * @return the same result
+     */
+    PackingResult<Packable> complete(PackingResult<Packable> result) {
+        if (listener != null) {
+            listener.onComplete(result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the time elapsed since the run started.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Returns the recorded trace, or an empty list when tracing was disabled.
+     *
+     * @return an unmodifiable view of the trace
+     */
+    List<IterationStats> trace() {
+        return trace == null ? Collections.emptyList() : Collections.unmodifiableList(trace);
+    }
+
+    /**
+     * Returns the number of adjustments made, saturated to the range of an {@code int}.
+     *
+     * @return the number of pushes plus the number of radius reductions
+     */
+    int adjustmentsMade() {
+        return (int) Math.min(Integer.MAX_VALUE, overlapsResolved + radiusAdjustments);
+    }
+
+    /**
+     * Snapshots the timings and counters collected so far.
+     *
+     * @return the metrics of the run
+     */
+    PackingMetrics metrics() {
+        return new PackingMetrics(elapsedNanos(), phaseNanos, pairTests, overlapsResolved, radiusAdjustments);
+    }
+}
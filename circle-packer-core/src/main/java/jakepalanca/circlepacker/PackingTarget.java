@@ -0,0 +1,214 @@
+package jakepalanca.circlepacker;
+
+import java.util.List;
+
+/**
+ * The circles of a packing run, as read before the run and written after it. Adapts a list of
+ * {@link Packable} objects, a {@link PackableBatch} or a {@link CircleBuffer}, so the solver does
+ * not depend on how the caller stores its circles.
+ */
+interface PackingTarget {
+
+    /**
+     * Returns the number of circles.
+     *
+     * @return the circle count
+     */
+    int size();
+
+    /**
+     * Returns the radius ratio of a circle.
+     *
+     * @param i the index of the circle
+     * @return its radius ratio
+     */
+    double radiusRatio(int i);
+
+    /**
+     * Returns the radius of a circle from the previous layout.
+     *
+     * @param i the index of the circle
+     * @return its radius, or 0 if it was never laid out
+     */
+    double radius(int i);
+
+    /**
+     * Returns the x-coordinate of a circle from the previous layout.
+     *
+     * @param i the index of the circle
+     * @return the x-coordinate of its center
+     */
+    double x(int i);
+
+    /**
+     * Returns the y-coordinate of a circle from the previous layout.
+     *
+     * @param i the index of the circle
+     * @return the y-coordinate of its center
+     */
+    double y(int i);
+
+    /**
+     * Stores a finished layout.
+     *
+     * @param x the x-coordinates of the circles
+     * @param y the y-coordinates of the circles
+     * @param r the radii of the circles
+     */
+    void write(double[] x, double[] y, double[] r);
+
+    /**
+     * Returns the circles as listed by the {@link PackingResult}.
+     *
+     * @return the packables
+     */
+    List<Packable> packables();
+
+    /**
+     * Adapts a list of packables.
+     *
+     * @param circles the circles to pack
+     * @return a target reading and writing the packables one by one
+     */
+    static PackingTarget of(List<? extends Packable> circles) {
+        return new PackingTarget() {
+            @Override
+            public int size() {
+                return circles.size();
+            }
+
+            @Override
+            public double radiusRatio(int i) {
+                return circles.get(i).getRadiusRatio();
+            }
+
+            @Override
+            public double radius(int i) {
+                return circles.get(i).getRadius();
+            }
+
+            @Override
+            public double x(int i) {
+                return circles.get(i).getX();
+            }
+
+            @Override
+            public double y(int i) {
+                return circles.get(i).getY();
+            }
+
+            @Override
+            public void write(double[] x, double[] y, double[] r) {
+                for (int i = 0; i < circles.size(); i++) {
+                    Packable circle = circles.get(i);
+                    circle.setRadius(r[i]);
+                    circle.setX(x[i]);
+                    circle.setY(y[i]);
+                }
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<Packable> packables() {
+                return (List<Packable>) circles;
+            }
+        };
+    }
+
+    /**
+     * Adapts a batch of circles stored in primitive arrays.
+     *
+     * @param batch the circles to pack
+     * @return a target reading and writing the arrays of the batch directly
+     */
+    static PackingTarget of(PackableBatch batch) {
+        double[] ratios = batch.getRadiusRatios();
+        double[] xs = batch.getX();
+        double[] ys = batch.getY();
+        double[] radii = batch.getRadii();
+        return new PackingTarget() {
+            @Override
+            public int size() {
+                return batch.size();
+            }
+
+            @Override
+            public double radiusRatio(int i) {
+                return ratios[i];
+            }
+
+            @Override
+            public double radius(int i) {
+                return radii[i];
+            }
+
+            @Override
+            public double x(int i) {
+                return xs[i];
+            }
+
+            @Override
+            public double y(int i) {
+                return ys[i];
+            }
+
+            @Override
+            public void write(double[] x, double[] y, double[] r) {
+                int n = batch.size();
+                System.arraycopy(x, 0, xs, 0, n);
+                System.arraycopy(y, 0, ys, 0, n);
+                System.arraycopy(r, 0, radii, 0, n);
+            }
+
+            @Override
+            public List<Packable> packables() {
+                return batch.asList();
+            }
+        };
+    }
+
+    /**
+     * Adapts circles stored outside the heap.
+     *
+     * @param buffer the circles to pack
+     * @return a target reading the buffer by index and writing it with bulk copies
+     */
+    static PackingTarget of(CircleBuffer buffer) {
+        return new PackingTarget() {
+            @Override
+            public int size() {
+                return buffer.size();
+            }
+
+            @Override
+            public double radiusRatio(int i) {
+                return buffer.getRadiusRatio(i);
+            }
+
+            @Override
+            public double radius(int i) {
+                return buffer.getRadius(i);
+            }
+
+            @Override
+            public double x(int i) {
+                return buffer.getX(i);
+            }
+
+            @Override
+            public double y(int i) {
+                return buffer.getY(i);
+            }
+
+            @Override
+            public void write(double[] x, double[] y, double[] r) {
+                buffer.storeLayout(x, y, r);
+            }
+
+            @Override
+            public List<Packable> packables() {
+                return buffer.asList();
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package jakepalanca.circlepacker;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Scratch buffers used by a packing run. A workspace is not thread-safe; reusing one for
+ * consecutive runs on the same thread avoids reallocating the coordinate arrays and the grid
+ * for every chart. Each workspace also owns the root of its random streams, so workspaces on
+ * different threads never contend on a shared generator.
+ */
+final class PackingWorkspace {
+
+    double[] x = new double[0];
+    double[] y = new double[0];
+    double[] r = new double[0];
+    boolean[] placed = new boolean[0];
+
+    // Position snapshots used to keep the best layout of a time-budgeted run
+    double[] bestX = new double[0];
+    double[] bestY = new double[0];
+    double[] candidateX = new double[0];
+    double[] candidateY = new double[0];
+    final SpatialGrid grid = new SpatialGrid();
+    final SweepStats stats = new SweepStats();
+    SplittableRandom random;
+
+    private final SplittableRandom streams = new SplittableRandom();
+
+    /**
+     * Prepares the random source of a run: a generator seeded with {@code seed}, or a new
+     * independent stream split from this workspace's root when no seed is given.
+     *
+     * @param seed the seed of the run, or {@code null} for a non-reproducible run
+     */
+    void reseed(Long seed) {
+        random = seed == null ? streams.split() : new SplittableRandom(seed);
+    }
+
+    /**
+     * Grows the snapshot arrays to hold at least {@code n} positions.
+     *
+     * @param n the number of circles
+     */
+    void ensureSnapshotCapacity(int n) {
+        if (bestX.length < n) {
+            int capacity = Math.max(n, bestX.length * 2);
+            bestX = new double[capacity];
+            bestY = new double[capacity];
+            candidateX = new double[capacity];
+            candidateY = new double[capacity];
+        }
+    }
+
+    /**
+     * Exchanges the candidate snapshot with the best one.
+     */
+    void promoteCandidate() {
+        double[] swap = bestX;
+        bestX = candidateX;
+        candidateX = swap;
+        swap = bestY;
+        bestY = candidateY;
+        candidateY = swap;
+    }
+
+    /**
+     * Grows the arrays to hold at least {@code n} circles and clears the placement flags.
+     *
+     * @param n the number of circles
+     */
+    void ensureCapacity(int n) {
+        if (x.length < n) {
+            int capacity = Math.max(n, x.length * 2);
+            x = new double[capacity];
+            y = new double[capacity];
+            r = new double[capacity];
+            placed = new boolean[capacity];
+        } else {
+            Arrays.fill(placed, 0, n, false);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package jakepalanca.circlepacker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Relaxation sweeps split across a fork-join pool.
+ * <p>
+ * Each sweep runs in two parallel phases over index ranges of circles. The first phase reads
+ * the positions from the start of the sweep and accumulates, for every circle, the sum of the
+ * pushes it receives from each overlapping neighbor. The second phase applies those
+ * displacements and clamps the circles to the rectangle. Every circle is written only by the
+ * task that owns its index, and the neighbors of a circle are always visited in the same
+ * order, so the layout depends only on the input positions and not on the thread count or
+ * scheduling. Coincident circles are separated along a direction derived from their indices
+ * rather than from a shared random source for the same reason.
+ * </p>
+ * <p>
+ * Solvers run on pools shared per parallelism level, the common pool when its parallelism
+ * matches, so a run does not start threads of its own.
+ * </p>
+ */
+final class ParallelSolver implements AutoCloseable {
+
+    /** Smallest index range worth handing to a separate task. */
+    private static final int MIN_CHUNK = 256;
+
+    /** Pools shared by all solvers, keyed by parallelism level. */
+    private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final SpatialGrid grid = new SpatialGrid();
+
+    private double[] dispX = new double[0];
+    private double[] dispY = new double[0];
+
+    private double width;
+    private double height;
+    private double[] x;
+    private double[] y;
+    private double[] r;
+    private final long salt;
+    private int sweep;
+    private int chunk;
+
+    /**
+     * Creates a solver backed by the shared pool of its parallelism level.
+     *
+     * @param parallelism the number of worker threads
+     * @param salt        value mixed into the separation directions, normally drawn from the
+     *                    random source of the run so that seeded runs are reproducible
+     */
+    ParallelSolver(int parallelism, long salt) {
+        this.parallelism = parallelism;
+        this.salt = salt;
+        this.pool = sharedPool(parallelism);
+    }
+
+    /**
+     * Returns the pool shared by every task of the given parallelism level. Its worker threads
+     * are daemon threads and are never shut down.
+     *
+     * @param parallelism the number of worker threads
+     * @return the common pool if its parallelism matches, otherwise a pool created on first use
+     */
+    static ForkJoinPool sharedPool(int parallelism) {
+        if (parallelism == ForkJoinPool.getCommonPoolParallelism()) {
+            return ForkJoinPool.commonPool();
+        }
+        return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    /**
+     * Performs one Jacobi relaxation sweep.
+     *
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     * @param x      the x-coordinates of the circles
+     * @param y      the y-coordinates of the circles
+     * @param r      the radii of the circles
+     * @param n      the number of circles
+     * @param stats  receives the overlaps found and the displacements applied during the sweep
+     */
+    void sweep(double width, double height, double[] x, double[] y, double[] r, int n, SweepStats stats) {
+        this.width = width;
+        this.height = height;
+        this.x = x;
+        this.y = y;
+        this.r = r;
+        this.chunk = Math.max(MIN_CHUNK, n / (parallelism * 4) + 1);
+        if (dispX.length < n) {
+            dispX = new double[n];
+            dispY = new double[n];
+        }
+
+        grid.rebuild(x, y, r, n, width, height);
+        stats.merge(pool.invoke(new AccumulateTask(0, n)));
+        if (stats.overlapCount > 0) {
+            pool.invoke(new ApplyTask(0, n));
+        }
+        sweep++;
+    }
+
+    /**
+     * Releases the coordinate arrays of the run. The shared pool stays up.
+     */
+    @Override
+    public void close() {
+        x = null;
+        y = null;
+        r = null;
+    }
+
+    /**
+     * Sums the pushes received by circle {@code i} from every overlapping neighbor. Each
+     * overlapping pair is counted by its lower index only; the displacement recorded is the
+     * length of the summed push.
+     *
+     * @param i     the circle index
+     * @param stats receives the overlaps and displacement of the circle
+     */
+    private void accumulate(int i, SweepStats stats) {
+        boolean overlaps = false;
+        double sumX = 0;
+        double sumY = 0;
+        int cols = grid.columns();
+
+        for (int row = grid.minRow(i); row <= grid.maxRow(i); row++) {
+            for (int col = grid.minCol(i); col <= grid.maxCol(i); col++) {
+                int cell = row * cols + col;
+                int end = grid.cellEnd(cell);
+
+                for (int a = grid.cellStart(cell); a < end; a++) {
+                    int j = grid.item(a);
+                    if (j == i || !grid.ownsPair(cell, i, j)) {
+                        continue;
+                    }
+                    if (i < j) {
+                        stats.pairTests++;
+                    }
+
+                    double dx = x[j] - x[i];
+                    double dy = y[j] - y[i];
+                    double minDistance = r[i] + r[j];
+                    if (dx * dx + dy * dy >= minDistance * minDistance) {
+                        continue;
+                    }
+                    double distance = Math.hypot(dx, dy);
+                    if (distance >= minDistance) {
+                        continue;
+                    }
+
+                    overlaps = true;
+                    double overlap = minDistance - distance;
+                    if (i < j) {
+                        stats.overlapCount++;
+                        stats.totalOverlap += overlap;
+                    }
+
+                    if (distance == 0) {
+                        // Same separation direction for both circles of the pair, seen from the lower index
+                        double angle = separationAngle(Math.min(i, j), Math.max(i, j), salt, sweep);
+                        double sign = i < j ? 1 : -1;
+                        dx = sign * Math.cos(angle);
+                        dy = sign * Math.sin(angle);
+                        distance = 0.001; // Small value to prevent division by zero
+                    }
+
+                    sumX -= (dx / distance) * (overlap / 2);
+                    sumY -= (dy / distance) * (overlap / 2);
+                }
+            }
+        }
+
+        dispX[i] = sumX;
+        dispY[i] = sumY;
+        if (overlaps) {
+            stats.maxDisplacement = Math.max(stats.maxDisplacement, Math.hypot(sumX, sumY));
+        }
+    }
+
+    /**
+     * Derives a reproducible angle for separating two coincident circles.
+     *
+     * @param lo    the lower circle index
+     * @param hi    the higher circle index
+     * @param salt  value mixed into the angle, normally drawn from the random source of the run
+     * @param sweep the number of the sweep, so a pair still coincident later moves another way
+     * @return an angle in radians
+     */
+    static double separationAngle(int lo, int hi, long salt, int sweep) {
+        long h = (((long) lo << 32 | hi) ^ salt) * 0x9E3779B97F4A7C15L + sweep;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 29;
+        return (h >>> 11) * 0x1.0p-53 * 2 * Math.PI;
+    }
+
+    /**
+     * Task computing displacements for a range of circles.
+     */
+    private final class AccumulateTask extends RecursiveTask<SweepStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        AccumulateTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SweepStats compute() {
+            if (to - from <= chunk) {
+                SweepStats stats = new SweepStats();
+                for (int i = from; i < to; i++) {
+                    accumulate(i, stats);
+                }
+                return stats;
+            }
+            int mid = (from + to) >>> 1;
+            AccumulateTask left = new AccumulateTask(from, mid);
+            left.fork();
+            SweepStats right = new AccumulateTask(mid, to).compute();
+            SweepStats stats = left.join();
+            stats.merge(right);
+            return stats;
+        }
+    }
+
+    /**
+     * Task applying accumulated displacements for a range of circles.
+     */
+    private final class ApplyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        ApplyTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                for (int i = from; i < to; i++) {
+                    double radius = r[i];
+                    x[i] = Math.max(radius, Math.min(x[i] + dispX[i], width - radius));
+                    y[i] = Math.max(radius, Math.min(y[i] + dispY[i], height - radius));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ApplyTask(from, mid), new ApplyTask(mid, to));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Strategy used after relaxation to shrink circles until none overlap or leave the rectangle.
+ */
+public enum ShrinkMode {
+
+    /**
+     * Repeatedly shrinks every offending circle by 5% until a full pass finds nothing to fix.
+     * Circles involved in more conflicts shrink more, so radius ratios drift.
+     */
+    GEOMETRIC,
+
+    /**
+     * Computes, in a single pass over the candidate pairs, the largest factor by which all radii
+     * can be scaled so that the current layout is free of overlaps and inside the rectangle,
+     * and applies it to every circle. Radius ratios are kept exact. Falls back to
+     * {@link #GEOMETRIC} when no positive factor exists, for example when two centers coincide.
+     */
+    UNIFORM_SCALE
+}
@@ -0,0 +1,21 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Execution strategy for the overlap-resolution sweeps of the relaxation solver.
+ */
+public enum SolverMode {
+
+    /**
+     * Resolves overlapping pairs one after another on the calling thread, updating positions
+     * in place (Gauss-Seidel order).
+     */
+    SEQUENTIAL,
+
+    /**
+     * Splits each sweep across a fork-join pool. Displacements for every circle are accumulated
+     * from the positions at the start of the sweep and applied together afterwards (Jacobi
+     * order), so no two threads write the same circle and the layout does not depend on how
+     * the work is scheduled.
+     */
+    PARALLEL
+}
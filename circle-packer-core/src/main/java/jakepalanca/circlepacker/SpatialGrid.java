@@ -0,0 +1,272 @@
+package jakepalanca.circlepacker;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the packing rectangle used as a broad phase for overlap tests.
+ * <p>
+ * Every circle is inserted into each cell covered by its bounding box, so two circles whose
+ * bounding boxes intersect always share at least one cell. A pair is reported only by the
+ * cell containing the minimum corner of the intersection of their bounding boxes, which
+ * means each candidate pair is visited exactly once per sweep. Because circles are stored
+ * in every cell they touch, a few very large circles do not force a coarse grid on the
+ * many small ones.
+ * </p>
+ * <p>
+ * The cell contents are stored in a compressed layout ({@code cellStart}/{@code items}) and
+ * the arrays are reused across rebuilds.
+ * </p>
+ */
+final class SpatialGrid {
+
+    /** Upper bound on the number of cells per circle, keeps memory linear in the circle count. */
+    private static final int MAX_CELLS_PER_CIRCLE = 4;
+
+    private int cols;
+    private int rows;
+    private double cellSize;
+
+    private int[] cellStart = new int[0];
+    private int[] items = new int[0];
+    private int[] cursor = new int[0];
+
+    private int[] minCol = new int[0];
+    private int[] minRow = new int[0];
+    private int[] maxCol = new int[0];
+    private int[] maxRow = new int[0];
+
+    /**
+     * Rebuilds the grid from the current positions and radii of the circles.
+     *
+     * @param x      the x-coordinates of the circles
+     * @param y      the y-coordinates of the circles
+     * @param r      the radii of the circles
+     * @param n      the number of circles
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    void rebuild(double[] x, double[] y, double[] r, int n, double width, double height) {
+        ensureCircleCapacity(n);
+
+        double totalRadius = 0;
+        for (int i = 0; i < n; i++) {
+            totalRadius += r[i];
+        }
+        double meanDiameter = n > 0 ? 2 * totalRadius / n : Math.max(width, height);
+        configure(width, height, meanDiameter, n);
+
+        // Cell range covered by each circle's bounding box
+        long entries = 0;
+        for (int i = 0; i < n; i++) {
+            minCol[i] = col(x[i] - r[i]);
+            maxCol[i] = col(x[i] + r[i]);
+            minRow[i] = row(y[i] - r[i]);
+            maxRow[i] = row(y[i] + r[i]);
+            entries += (long) (maxCol[i] - minCol[i] + 1) * (maxRow[i] - minRow[i] + 1);
+        }
+        fill(n, entries);
+    }
+
+    /**
+     * Returns the number of cells in the grid.
+     *
+     * @return the cell count
+     */
+    int cellCount() {
+        return cols * rows;
+    }
+
+    /**
+     * Returns the index into {@link #item(int)} of the first circle stored in a cell.
+     *
+     * @param cell the cell index
+     * @return the inclusive start offset
+     */
+    int cellStart(int cell) {
+        return cellStart[cell];
+    }
+
+    /**
+     * Returns the index into {@link #item(int)} just past the last circle stored in a cell.
+     *
+     * @param cell the cell index
+     * @return the exclusive end offset
+     */
+    int cellEnd(int cell) {
+        return cellStart[cell + 1];
+    }
+
+    /**
+     * Returns the circle index stored at the given offset. Within a cell, circle indices are
+     * in ascending order.
+     *
+     * @param offset the offset into the cell contents
+     * @return the circle index
+     */
+    int item(int offset) {
+        return items[offset];
+    }
+
+    /**
+     * Returns whether the given cell is responsible for testing the pair {@code (i, j)}.
+     * Both circles must be stored in {@code cell}.
+     *
+     * @param cell the cell that holds both circles
+     * @param i    the first circle index
+     * @param j    the second circle index
+     * @return {@code true} if the pair should be tested in this cell
+     */
+    boolean ownsPair(int cell, int i, int j) {
+        int ownerCol = Math.max(minCol[i], minCol[j]);
+        int ownerRow = Math.max(minRow[i], minRow[j]);
+        return cell == ownerRow * cols + ownerCol;
+    }
+
+    /**
+     * Returns the number of columns in the grid. Cell indices are {@code row * columns + col}.
+     *
+     * @return the column count
+     */
+    int columns() {
+        return cols;
+    }
+
+    /**
+     * Returns the first grid column covered by a circle.
+     *
+     * @param i the circle index
+     * @return the minimum column
+     */
+    int minCol(int i) {
+        return minCol[i];
+    }
+
+    /**
+     * Returns the last grid column covered by a circle.
+     *
+     * @param i the circle index
+     * @return the maximum column
+     */
+    int maxCol(int i) {
+        return maxCol[i];
+    }
+
+    /**
+     * Returns the first grid row covered by a circle.
+     *
+     * @param i the circle index
+     * @return the minimum row
+     */
+    int minRow(int i) {
+        return minRow[i];
+    }
+
+    /**
+     * Returns the last grid row covered by a circle.
+     *
+     * @param i the circle index
+     * @return the maximum row
+     */
+    int maxRow(int i) {
+        return maxRow[i];
+    }
+
+    /**
+     * Returns the cell size of a grid over the rectangle: the mean circle diameter, enlarged if
+     * needed so that the grid has at most {@value #MAX_CELLS_PER_CIRCLE} cells per circle.
+     *
+     * @param width        the width of the rectangle
+     * @param height       the height of the rectangle
+     * @param meanDiameter the mean diameter of the circles, or 0 if there are none
+     * @param n            the number of circles
+     * @return the side length of a cell
+     */
+    static double cellSize(double width, double height, double meanDiameter, int n) {
+        double size = meanDiameter > 0 ? meanDiameter : Math.max(width, height);
+        long maxCells = Math.max(1L, (long) n * MAX_CELLS_PER_CIRCLE);
+        long c = (long) Math.ceil(width / size);
+        long r = (long) Math.ceil(height / size);
+        if (c * r > maxCells) {
+            size *= Math.sqrt((double) (c * r) / maxCells);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of cells of the given size needed to cover an extent.
+     *
+     * @param extent   the width or height of the rectangle
+     * @param cellSize the side length of a cell
+     * @return the column or row count, at least 1
+     */
+    static int cellsAcross(double extent, double cellSize) {
+        return (int) Math.max(1, (long) Math.ceil(extent / cellSize));
+    }
+
+    private void configure(double width, double height, double meanDiameter, int n) {
+        cellSize = cellSize(width, height, meanDiameter, n);
+        cols = cellsAcross(width, cellSize);
+        rows = cellsAcross(height, cellSize);
+
+        int cells = cols * rows;
+        if (cellStart.length < cells + 1) {
+            cellStart = new int[cells + 1];
+        } else {
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+        }
+        if (cursor.length < cells) {
+            cursor = new int[cells];
+        }
+    }
+
+    private void fill(int n, long entries) {
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Spatial grid too large: " + entries + " entries");
+        }
+        if (items.length < entries) {
+            items = new int[(int) entries];
+        }
+
+        // Count entries per cell, then turn the counts into start offsets
+        for (int i = 0; i < n; i++) {
+            for (int row = minRow[i]; row <= maxRow[i]; row++) {
+                for (int col = minCol[i]; col <= maxCol[i]; col++) {
+                    cellStart[row * cols + col + 1]++;
+                }
+            }
+        }
+        int cells = cols * rows;
+        for (int cell = 0; cell < cells; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        // Scatter circle indices; iterating i in order keeps each cell sorted
+        System.arraycopy(cellStart, 0, cursor, 0, cells);
+        for (int i = 0; i < n; i++) {
+            for (int row = minRow[i]; row <= maxRow[i]; row++) {
+                for (int col = minCol[i]; col <= maxCol[i]; col++) {
+                    items[cursor[row * cols + col]++] = i;
+                }
+            }
+        }
+    }
+
+    private int col(double x) {
+        int c = (int) Math.floor(x / cellSize);
+        return Math.max(0, Math.min(c, cols - 1));
+    }
+
+    private int row(double y) {
+        int r = (int) Math.floor(y / cellSize);
+        return Math.max(0, Math.min(r, rows - 1));
+    }
+
+    private void ensureCircleCapacity(int n) {
+        if (minCol.length < n) {
+            minCol = new int[n];
+            minRow = new int[n];
+            maxCol = new int[n];
+            maxRow = new int[n];
+        }
+    }
+}
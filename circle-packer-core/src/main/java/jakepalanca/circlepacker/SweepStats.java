@@ -0,0 +1,48 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Mutable accumulator for the measurements of one relaxation sweep.
+ */
+final class SweepStats {
+
+    long pairTests;
+    int overlapCount;
+    double totalOverlap;
+    double maxDisplacement;
+
+    /**
+     * Clears the accumulated values before a new sweep.
+     */
+    void reset() {
+        pairTests = 0;
+        overlapCount = 0;
+        totalOverlap = 0;
+        maxDisplacement = 0;
+    }
+
+    /**
+     * Records one overlapping pair.
+     *
+     * @param overlap      the penetration depth of the pair
+     * @param displacement the length of the push applied to each circle of the pair
+     */
+    void recordPair(double overlap, double displacement) {
+        overlapCount++;
+        totalOverlap += overlap;
+        if (displacement > maxDisplacement) {
+            maxDisplacement = displacement;
+        }
+    }
+
+    /**
+     * Adds the values accumulated by another instance to this one.
+     *
+     * @param other the accumulator to merge
+     */
+    void merge(SweepStats other) {
+        pairTests += other.pairTests;
+        overlapCount += other.overlapCount;
+        totalOverlap += other.totalOverlap;
+        maxDisplacement = Math.max(maxDisplacement, other.maxDisplacement);
+    }
+}
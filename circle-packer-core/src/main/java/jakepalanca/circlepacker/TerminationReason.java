@@ -0,0 +1,57 @@
+package jakepalanca.circlepacker;
+
+/**
+ * Why the relaxation stage of a packing run stopped.
+ */
+public enum TerminationReason {
+
+    /**
+     * A sweep found no overlapping pair, or the algorithm never produces overlaps.
+     */
+    NO_OVERLAPS,
+
+    /**
+     * The largest push applied in a sweep fell below
+     * {@link PackingOptions#getDisplacementTolerance()}.
+     */
+    DISPLACEMENT_CONVERGED,
+
+    /**
+     * The summed penetration depth found in a sweep fell to or below
+     * {@link PackingOptions#getOverlapTolerance()}.
+     */
+    OVERLAP_CONVERGED,
+
+    /**
+     * The summed penetration depth did not improve on its best value for
+     * {@link PackingOptions#getStallSweeps()} consecutive sweeps.
+     */
+    STALLED,
+
+    /**
+     * The iteration limit was reached before any other criterion was met.
+     */
+    MAX_ITERATIONS,
+
+    /**
+     * The time budget ran out before any other criterion was met. The best layout seen during
+     * relaxation was kept.
+     */
+    DEADLINE,
+
+    /**
+     * The run was cancelled through its {@link CancellationToken} or by interrupting its thread.
+     * The circles were not shrunk, so the partial layout may contain overlaps.
+     */
+    CANCELLED;
+
+    /**
+     * Returns whether relaxation was stopped by a limit or request of the caller rather than by
+     * reaching one of its own stopping criteria.
+     *
+     * @return {@code true} for {@link #MAX_ITERATIONS}, {@link #DEADLINE} and {@link #CANCELLED}
+     */
+    public boolean isCutShort() {
+        return this == MAX_ITERATIONS || this == DEADLINE || this == CANCELLED;
+    }
+}
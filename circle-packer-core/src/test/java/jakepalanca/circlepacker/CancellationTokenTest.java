@@ -0,0 +1,72 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.util.List;
+
+import static jakepalanca.circlepacker.PackingTest.randomCircles;
+import static org.junit.Assert.*;
+
+public class CancellationTokenTest {
+
+    @Test
+    public void testCancelStopsBetweenSweeps() {
+        CancellationToken token = new CancellationToken();
+        PackingOptions options = new PackingOptions();
+        options.setCancellationToken(token);
+        options.setListener(new PackingListener() {
+            @Override
+            public void onIteration(IterationStats stats) {
+                if (stats.getIteration() == 3) {
+                    token.cancel();
+                }
+            }
+        });
+        List<MockPackable> circles = randomCircles(2000, 3, 1, 9);
+        PackingResult<Packable> result = Packing.packCircles(400, 300, circles, 1000, options);
+
+        assertTrue(token.isCancelled());
+        assertTrue(result.isCancelled());
+        assertTrue(result.isCutShort());
+        assertEquals(TerminationReason.CANCELLED, result.getTerminationReason());
+        assertEquals(3, result.getIterations());
+        // The partial layout is written back and still inside the rectangle
+        for (MockPackable circle : circles) {
+            assertTrue(circle.getRadius() > 0);
+            assertTrue(circle.getX() >= 0 && circle.getX() <= 400);
+            assertTrue(circle.getY() >= 0 && circle.getY() <= 300);
+        }
+    }
+
+    @Test
+    public void testInterruptCancelsRun() {
+        Thread.currentThread().interrupt();
+        try {
+            PackingResult<Packable> result = Packing.packCircles(400, 300, randomCircles(100, 3, 1, 9), 1000);
+            assertTrue(result.isCancelled());
+            assertEquals(0, result.getIterations());
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testCancelledRunsAreNotCached() {
+        LayoutCache cache = new LayoutCache(4);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        PackingOptions options = new PackingOptions();
+        options.setLayoutCache(cache);
+        options.setCancellationToken(token);
+        options.setSeed(1L);
+
+        assertTrue(Packing.packCircles(400, 300, randomCircles(100, 3, 1, 9), 100, options).isCancelled());
+        assertEquals(0, cache.size());
+
+        options.setCancellationToken(null);
+        assertFalse(Packing.packCircles(400, 300, randomCircles(100, 3, 1, 9), 100, options).isCancelled());
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,197 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static jakepalanca.circlepacker.PackingTest.randomCircles;
+import static org.junit.Assert.*;
+
+public class ChartTest {
+
+    private static Chart createChart(int count) {
+        Chart chart = new Chart(1000, 1000);
+        for (MockPackable circle : randomCircles(count, 42)) {
+            chart.addPackable(circle);
+        }
+        return chart;
+    }
+
+    private static Map<UUID, double[]> snapshot(Chart chart) {
+        Map<UUID, double[]> positions = new HashMap<>();
+        for (Packable p : chart.getPackables()) {
+            positions.put(p.getId(), new double[]{p.getX(), p.getY(), p.getRadius()});
+        }
+        return positions;
+    }
+
+    private static void assertNoOverlaps(List<Packable> packables) {
+        for (int i = 0; i < packables.size(); i++) {
+            Packable c1 = packables.get(i);
+            for (int j = i + 1; j < packables.size(); j++) {
+                Packable c2 = packables.get(j);
+                double distance = Math.hypot(c2.getX() - c1.getX(), c2.getY() - c1.getY());
+                assertTrue(distance >= c1.getRadius() + c2.getRadius());
+            }
+        }
+    }
+
+    @Test
+    public void testAddAndRepackKeepsExistingLayout() {
+        Chart chart = createChart(2000);
+        PackingOptions options = new PackingOptions();
+        options.setShrinkMode(ShrinkMode.UNIFORM_SCALE);
+        chart.optimize(200, options);
+        Map<UUID, double[]> before = snapshot(chart);
+
+        MockPackable added = new MockPackable(0.5);
+        PackingResult<Packable> result = chart.addAndRepack(added, 5);
+
+        assertEquals(2001, result.getPackables().size());
+        assertEquals(2001, chart.getPackables().size());
+        assertTrue(added.getRadius() > 0);
+        assertNoOverlaps(result.getPackables());
+
+        int unchanged = 0;
+        for (Packable p : chart.getPackables()) {
+            double[] old = before.get(p.getId());
+            if (old != null && old[0] == p.getX() && old[1] == p.getY() && old[2] == p.getRadius()) {
+                unchanged++;
+            }
+        }
+        assertTrue("Only the neighborhood should move, unchanged: " + unchanged, unchanged > 1800);
+    }
+
+    @Test
+    public void testAddAndRepackRejectsNaNRatio() {
+        Chart chart = createChart(50);
+        chart.optimize(200);
+
+        try {
+            chart.addAndRepack(new MockPackable(Double.NaN), 5);
+            fail("A NaN ratio should be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(50, chart.getPackables().size());
+        }
+    }
+
+    @Test
+    public void testRemoveAndRepackKeepsPositions() {
+        Chart chart = createChart(100);
+        chart.optimize(1000);
+        Map<UUID, double[]> before = snapshot(chart);
+
+        UUID removed = chart.getPackables().iterator().next().getId();
+        PackingResult<Packable> result = chart.removeAndRepack(removed);
+
+        assertEquals(99, result.getPackables().size());
+        for (Packable p : chart.getPackables()) {
+            double[] old = before.get(p.getId());
+            assertEquals(old[0], p.getX(), 0);
+            assertEquals(old[1], p.getY(), 0);
+        }
+    }
+
+    @Test
+    public void testAddAndRepackWithoutLayoutOptimizesFully() {
+        Chart chart = createChart(20);
+
+        PackingResult<Packable> result = chart.addAndRepack(new MockPackable(1.0), 1000);
+
+        assertEquals(21, result.getPackables().size());
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testRemoveAndRepackWithoutLayoutOptimizesFully() {
+        Chart chart = createChart(20);
+
+        PackingResult<Packable> result = chart.removeAndRepack(chart.getPackables().iterator().next().getId());
+
+        assertEquals(19, result.getPackables().size());
+        assertTrue(result.getIterations() > 0);
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testAddAndRepackAfterCancelledOptimizeOptimizesFully() {
+        Chart chart = createChart(200);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        PackingOptions options = new PackingOptions();
+        options.setCancellationToken(token);
+        assertTrue(chart.optimize(1000, options).isCancelled());
+
+        options.setCancellationToken(null);
+        PackingResult<Packable> result = chart.addAndRepack(new MockPackable(1.0), 1000);
+
+        // The cancelled run left its overlapping initial placement, which only a full run removes
+        assertEquals(201, result.getPackables().size());
+        assertTrue(result.getIterations() > 0);
+        assertFalse(result.isOverlapsExist());
+        assertNoOverlaps(result.getPackables());
+    }
+
+    @Test
+    public void testRepairSeparatesCoincidentCircles() {
+        List<Packable> circles = List.of(new MockPackable(1), new MockPackable(1));
+        for (Packable circle : circles) {
+            circle.setX(10);
+            circle.setY(10);
+            circle.setRadius(5);
+        }
+        PackingOptions options = new PackingOptions();
+        options.setSeed(5L);
+        IncrementalLayout layout = IncrementalLayout.build(20, 20, circles, options);
+
+        // Without relaxation rounds, the insertion is resolved by the repair pass alone
+        PackingResult<Packable> result = layout.add(new MockPackable(1), 0);
+
+        assertFalse(result.isOverlapsExist());
+        assertNoOverlaps(result.getPackables());
+    }
+
+    @Test
+    public void testSeededOptimizeIsReproducible() {
+        Chart chart = createChart(300);
+        PackingOptions options = new PackingOptions();
+        options.setSeed(99L);
+
+        chart.optimize(100, options);
+        Map<UUID, double[]> first = snapshot(chart);
+        chart.optimize(100, options);
+        Map<UUID, double[]> second = snapshot(chart);
+        for (Map.Entry<UUID, double[]> entry : first.entrySet()) {
+            assertArrayEquals(entry.getValue(), second.get(entry.getKey()), 0);
+        }
+    }
+
+    @Test
+    public void testTimeBudgetedOptimize() {
+        Chart chart = new Chart(800, 600);
+        for (int i = 0; i < 20; i++) {
+            chart.addPackable(new MockPackable(1 + i % 3));
+        }
+        PackingOptions options = new PackingOptions();
+        options.setStallSweeps(50);
+        options.setSeed(17L);
+
+        PackingResult<Packable> result = chart.optimize(Duration.ofSeconds(10), options);
+        assertEquals(20, result.getPackables().size());
+        assertFalse(result.isOverlapsExist());
+        assertFalse(result.isCutShort());
+
+        // Falls back to a full optimization within the same budget
+        UUID removed = chart.getPackables().iterator().next().getId();
+        chart.removePackable(removed);
+        chart.addPackable(new MockPackable(1.0));
+        result = chart.removeAndRepack(chart.getPackables().iterator().next().getId());
+        assertEquals(19, result.getPackables().size());
+        assertFalse(result.isCutShort());
+    }
+}
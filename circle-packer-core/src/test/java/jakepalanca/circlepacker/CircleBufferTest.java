@@ -0,0 +1,106 @@
+package jakepalanca.circlepacker;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static jakepalanca.circlepacker.PackingTest.randomRatios;
+import static org.junit.Assert.*;
+
+public class CircleBufferTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDirectBufferMatchesBatch() {
+        double[] ratios = randomRatios(1000, 6, 0.1, 1);
+        PackingOptions options = new PackingOptions();
+        options.setSeed(4L);
+        PackableBatch batch = new PackableBatch(ratios.clone());
+        Packing.packCircles(800, 500, batch, 100, options);
+
+        CircleBuffer buffer = CircleBuffer.allocateDirect(ratios.length);
+        buffer.setRadiusRatios(0, ratios);
+        PackingResult<Packable> result = Packing.packCircles(800, 500, buffer, 100, options);
+
+        double[] x = new double[ratios.length];
+        double[] y = new double[ratios.length];
+        double[] r = new double[ratios.length];
+        buffer.copyLayout(x, y, r);
+        assertArrayEquals(batch.getX(), x, 0);
+        assertArrayEquals(batch.getY(), y, 0);
+        assertArrayEquals(batch.getRadii(), r, 0);
+        assertEquals(ratios.length, result.getPackables().size());
+        assertEquals(999, buffer.getId(999));
+        assertEquals(buffer.getX(10), result.getPackables().get(10).getX(), 0);
+    }
+
+    @Test
+    public void testMappedLayoutPersists() throws IOException {
+        Path file = folder.newFile("circles.bin").toPath();
+        double[] ratios = randomRatios(500, 6, 0.1, 1);
+        CircleBuffer buffer = CircleBuffer.map(file, ratios.length);
+        buffer.setRadiusRatios(0, ratios);
+        buffer.setId(7, 1234567890123L);
+        PackingResult<Packable> result = Packing.packCircles(400, 400, buffer, 100, new PackingOptions());
+        buffer.force();
+
+        assertEquals(CircleBuffer.byteSize(ratios.length), Files.size(file));
+        CircleBuffer reopened = CircleBuffer.map(file, ratios.length);
+        for (int i = 0; i < ratios.length; i++) {
+            assertEquals(ratios[i], reopened.getRadiusRatio(i), 0);
+            assertEquals(buffer.getX(i), reopened.getX(i), 0);
+            assertEquals(buffer.getRadius(i), reopened.getRadius(i), 0);
+        }
+        assertEquals(1234567890123L, reopened.getId(7));
+        assertFalse(result.isOverlapsExist());
+
+        // The file is plain little-endian columns
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(ratios[3], bytes.getDouble(3 * Double.BYTES), 0);
+        assertEquals(buffer.getY(3), bytes.getDouble((2 * ratios.length + 3) * Double.BYTES), 0);
+    }
+
+    @Test
+    public void testMappingWithAnotherSizeIsRejected() throws IOException {
+        Path file = folder.newFile("circles.bin").toPath();
+        CircleBuffer.map(file, 100).force();
+
+        assertThrows(IOException.class, () -> CircleBuffer.map(file, 120));
+        assertThrows(IOException.class, () -> CircleBuffer.map(file, 80));
+        assertEquals(100, CircleBuffer.map(file, 100).size());
+    }
+
+    @Test
+    public void testWarmStartFromBuffer() {
+        CircleBuffer buffer = CircleBuffer.allocateDirect(200);
+        buffer.setRadiusRatios(0, randomRatios(200, 6, 0.1, 1));
+        Packing.packCircles(400, 400, buffer, 200, new PackingOptions());
+
+        double[] x = new double[200];
+        double[] y = new double[200];
+        double[] r = new double[200];
+        buffer.copyLayout(x, y, r);
+
+        // Without sweeps, a warm start keeps circles near their previous positions
+        PackingOptions options = new PackingOptions();
+        options.setWarmStart(true);
+        Packing.packCircles(400, 400, buffer, 0, options);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(x[i], buffer.getX(i), r[i]);
+            assertEquals(y[i], buffer.getY(i), r[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrapRejectsSmallBuffer() {
+        CircleBuffer.wrap(ByteBuffer.allocate(CircleBuffer.BYTES_PER_CIRCLE * 3 - 1), 3);
+    }
+}
@@ -0,0 +1,88 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CircleRendererTest {
+
+    private static MockPackable circle(double x, double y, double radius) {
+        MockPackable circle = new MockPackable(radius);
+        circle.setX(x);
+        circle.setY(y);
+        circle.setRadius(radius);
+        return circle;
+    }
+
+    @Test
+    public void testSvgScalesAndCentersLayout() throws IOException {
+        // A 100x50 layout in a 400x400 image is scaled by 4 and centered vertically
+        CircleRenderer renderer = new CircleRenderer(100, 50, 400, 400);
+        renderer.setFill(p -> p.getRadiusRatio() > 5 ? 0xFFFF0000 : 0x8000FF00);
+        List<MockPackable> circles = Arrays.asList(circle(50, 25, 10), circle(10.125, 10, 2));
+        StringWriter out = new StringWriter();
+
+        assertEquals(2, renderer.writeSvg(circles, out));
+        String svg = out.toString();
+        assertTrue(svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"400\" height=\"400\""));
+        assertTrue(svg.contains("<circle cx=\"200\" cy=\"200\" r=\"40\" fill=\"#ff0000\" stroke=\"#000000\" stroke-width=\"1\"/>"));
+        assertTrue(svg.contains("<circle cx=\"40.5\" cy=\"140\" r=\"8\" fill=\"#00ff00\" fill-opacity=\"0.5\""));
+        assertTrue(svg.endsWith("</svg>\n"));
+    }
+
+    @Test
+    public void testSubPixelAndOffImageCirclesAreCulled() throws IOException {
+        CircleRenderer renderer = new CircleRenderer(1000, 1000, 100, 100);
+        List<MockPackable> circles = Arrays.asList(circle(500, 500, 100), circle(100, 100, 2), circle(-200, 500, 50));
+        StringWriter out = new StringWriter();
+        assertEquals(1, renderer.writeSvg(circles, out));
+
+        renderer.setMinRadius(0);
+        out = new StringWriter();
+        assertEquals(2, renderer.writeSvg(circles, out));
+    }
+
+    @Test
+    public void testPngRoundTrip() throws IOException {
+        CircleRenderer renderer = new CircleRenderer(100, 100, 200, 200);
+        renderer.setBackground(0xFFFFFFFF);
+        renderer.setFill(p -> 0xFF0000FF);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.writePng(Arrays.asList(circle(25, 25, 20), circle(75, 75, 0.1)), out);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(200, image.getWidth());
+        assertEquals(200, image.getHeight());
+        assertEquals(0xFF0000FF, image.getRGB(50, 50));
+        // The sub-pixel circle is culled and leaves the background untouched
+        assertEquals(0xFFFFFFFF, image.getRGB(150, 150));
+        assertEquals(0xFFFFFFFF, image.getRGB(190, 10));
+    }
+
+    @Test
+    public void testTransparentBackgroundByDefault() {
+        CircleRenderer renderer = new CircleRenderer(10, 10, 20, 20);
+        BufferedImage image = renderer.renderImage(List.of());
+        assertEquals(0, image.getRGB(10, 10) >>> 24);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new CircleRenderer(0, 10, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new CircleRenderer(10, 10, 10, -1));
+        CircleRenderer renderer = new CircleRenderer(10, 10, 10, 10);
+        assertThrows(IllegalArgumentException.class, () -> renderer.setFill(null));
+        assertThrows(IllegalArgumentException.class, () -> renderer.setStrokeWidth(-1));
+        assertThrows(IllegalArgumentException.class, () -> renderer.setMinRadius(Double.NaN));
+    }
+}
@@ -0,0 +1,136 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EnclosingCircleTest {
+
+    /**
+     * Smallest circle through two or three of the points that contains all of them.
+     */
+    private static double bruteForcePointRadius(double[] x, double[] y, int n) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double cx = (x[i] + x[j]) / 2;
+                double cy = (y[i] + y[j]) / 2;
+                best = Math.min(best, radiusIfEnclosing(x, y, n, cx, cy, Math.hypot(x[i] - cx, y[i] - cy)));
+                for (int k = j + 1; k < n; k++) {
+                    double ax = x[j] - x[i];
+                    double ay = y[j] - y[i];
+                    double bx = x[k] - x[i];
+                    double by = y[k] - y[i];
+                    double d = 2 * (ax * by - ay * bx);
+                    if (d == 0) {
+                        continue;
+                    }
+                    double ux = (by * (ax * ax + ay * ay) - ay * (bx * bx + by * by)) / d;
+                    double uy = (ax * (bx * bx + by * by) - bx * (ax * ax + ay * ay)) / d;
+                    best = Math.min(best, radiusIfEnclosing(x, y, n, x[i] + ux, y[i] + uy, Math.hypot(ux, uy)));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static double radiusIfEnclosing(double[] x, double[] y, int n, double cx, double cy, double radius) {
+        for (int i = 0; i < n; i++) {
+            if (Math.hypot(x[i] - cx, y[i] - cy) > radius * (1 + 1e-9)) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        return radius;
+    }
+
+    @Test
+    public void testPointsMatchBruteForce() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 2 + random.nextInt(25);
+            double[] x = new double[n];
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = random.nextGaussian() * 100;
+                y[i] = random.nextDouble() * 50;
+            }
+            EnclosingCircle circle = EnclosingCircle.of(x, y, new double[n], n);
+            assertEquals(bruteForcePointRadius(x, y, n), circle.getRadius(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testEnclosesCirclesTightly() {
+        Random random = new Random(10);
+        int n = 5000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] r = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble() * 1000;
+            y[i] = random.nextDouble() * 1000;
+            r[i] = random.nextDouble() * 30;
+        }
+        EnclosingCircle circle = EnclosingCircle.of(x, y, r, n);
+
+        int touching = 0;
+        for (int i = 0; i < n; i++) {
+            assertTrue(circle.encloses(x[i], y[i], r[i]));
+            double gap = circle.getRadius() - Math.hypot(x[i] - circle.getX(), y[i] - circle.getY()) - r[i];
+            if (gap < 1e-6 * circle.getRadius()) {
+                touching++;
+            }
+        }
+        // The smallest enclosing circle is supported by at least two of the circles
+        assertTrue(touching >= 2);
+    }
+
+    @Test
+    public void testSimpleCases() {
+        EnclosingCircle single = EnclosingCircle.of(new double[]{3}, new double[]{4}, new double[]{5}, 1);
+        assertEquals(3, single.getX(), 0);
+        assertEquals(4, single.getY(), 0);
+        assertEquals(5, single.getRadius(), 0);
+
+        // A small circle inside a large one does not change it
+        EnclosingCircle nested = EnclosingCircle.of(new double[]{0, 1}, new double[]{0, 0}, new double[]{10, 2}, 2);
+        assertEquals(0, nested.getX(), 1e-12);
+        assertEquals(10, nested.getRadius(), 1e-12);
+
+        EnclosingCircle pair = EnclosingCircle.of(new double[]{0, 10}, new double[]{0, 0}, new double[]{1, 3}, 2);
+        assertEquals(6, pair.getX(), 1e-12);
+        assertEquals(7, pair.getRadius(), 1e-12);
+    }
+
+    @Test
+    public void testPackablesMatchArrays() {
+        List<MockPackable> circles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            circles.add(new MockPackable(1 + i % 7));
+        }
+        Packing.packCircles(500, 300, circles, 100);
+        double[] x = new double[circles.size()];
+        double[] y = new double[circles.size()];
+        double[] r = new double[circles.size()];
+        for (int i = 0; i < circles.size(); i++) {
+            x[i] = circles.get(i).getX();
+            y[i] = circles.get(i).getY();
+            r[i] = circles.get(i).getRadius();
+        }
+        EnclosingCircle expected = EnclosingCircle.of(x, y, r, x.length);
+        EnclosingCircle actual = EnclosingCircle.of(circles);
+        assertEquals(expected.getX(), actual.getX(), 0);
+        assertEquals(expected.getY(), actual.getY(), 0);
+        assertEquals(expected.getRadius(), actual.getRadius(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyInput() {
+        EnclosingCircle.of(new ArrayList<MockPackable>());
+    }
+}
@@ -0,0 +1,67 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static jakepalanca.circlepacker.PackingTest.randomCircles;
+import static org.junit.Assert.*;
+
+public class JfrPackingListenerTest {
+
+    @Test
+    public void testEventsAreRecorded() throws Exception {
+        List<MockPackable> circles = randomCircles(200, 16);
+        PackingOptions options = new PackingOptions();
+        options.setListener(new JfrPackingListener(2));
+
+        Path file = Files.createTempFile("packing", ".jfr");
+        try {
+            PackingResult<Packable> result;
+            try (Recording recording = new Recording()) {
+                recording.enable(JfrPackingListener.RUN_EVENT);
+                recording.enable(JfrPackingListener.PHASE_EVENT);
+                recording.enable(JfrPackingListener.ITERATION_EVENT);
+                recording.start();
+                result = Packing.packCircles(500, 500, circles, 10, options);
+                recording.stop();
+                recording.dump(file);
+            }
+
+            int runs = 0;
+            int phases = 0;
+            int iterations = 0;
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                switch (event.getEventType().getName()) {
+                    case JfrPackingListener.RUN_EVENT:
+                        runs++;
+                        assertEquals(200, event.getInt("circleCount"));
+                        assertEquals(result.getIterations(), event.getInt("iterations"));
+                        assertEquals(result.getTerminationReason().name(), event.getString("terminationReason"));
+                        break;
+                    case JfrPackingListener.PHASE_EVENT:
+                        phases++;
+                        PackingPhase.valueOf(event.getString("phase"));
+                        break;
+                    case JfrPackingListener.ITERATION_EVENT:
+                        iterations++;
+                        assertEquals(0, event.getInt("iteration") % 2);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            assertEquals(1, runs);
+            assertEquals(PackingPhase.values().length, phases);
+            assertEquals(result.getIterations() / 2, iterations);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
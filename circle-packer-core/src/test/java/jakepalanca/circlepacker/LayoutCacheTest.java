@@ -0,0 +1,129 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static jakepalanca.circlepacker.PackingTest.randomRatios;
+import static org.junit.Assert.*;
+
+public class LayoutCacheTest {
+
+    private static List<MockPackable> createCircles(double[] ratios) {
+        List<MockPackable> circles = new ArrayList<>();
+        for (double ratio : ratios) {
+            circles.add(new MockPackable(ratio));
+        }
+        return circles;
+    }
+
+    @Test
+    public void testHitMapsLayoutByRatio() {
+        LayoutCache cache = new LayoutCache(10);
+        PackingOptions options = new PackingOptions();
+        options.setLayoutCache(cache);
+
+        double[] ratios = randomRatios(150, 1);
+        List<MockPackable> first = createCircles(ratios);
+        PackingResult<Packable> computed = Packing.packCircles(600, 400, first, 200, options);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        // Same multiset of ratios in another order, with fresh identifiers
+        List<MockPackable> second = createCircles(ratios);
+        Collections.shuffle(second, new Random(2));
+        PackingResult<Packable> cached = Packing.packCircles(600, 400, second, 200, options);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0.5, cache.getHitRate(), 0);
+        assertEquals(computed.getIterations(), cached.getIterations());
+        assertEquals(computed.isOverlapsExist(), cached.isOverlapsExist());
+        assertSame(second, cached.getPackables());
+
+        Comparator<MockPackable> byRatio = Comparator.comparingDouble(MockPackable::getRadiusRatio);
+        first.sort(byRatio);
+        second.sort(byRatio);
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getX(), second.get(i).getX(), 0);
+            assertEquals(first.get(i).getY(), second.get(i).getY(), 0);
+            assertEquals(first.get(i).getRadius(), second.get(i).getRadius(), 0);
+        }
+    }
+
+    @Test
+    public void testKeyIncludesDimensionsAndOptions() {
+        LayoutCache cache = new LayoutCache(10);
+        PackingOptions options = new PackingOptions();
+        options.setLayoutCache(cache);
+        double[] ratios = randomRatios(50, 3);
+
+        Packing.packCircles(600, 400, createCircles(ratios), 100, options);
+        Packing.packCircles(400, 600, createCircles(ratios), 100, options);
+        Packing.packCircles(600, 400, createCircles(ratios), 50, options);
+        options.setShrinkMode(ShrinkMode.UNIFORM_SCALE);
+        Packing.packCircles(600, 400, createCircles(ratios), 100, options);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+
+        // Time-budgeted runs bypass the cache
+        Packing.packCircles(600, 400, createCircles(ratios), Duration.ofSeconds(1), options);
+        assertEquals(4, cache.getMissCount());
+        assertEquals(4, cache.size());
+
+        // Warm-started runs bypass the cache
+        options.setWarmStart(true);
+        Packing.packCircles(600, 400, createCircles(ratios), 100, options);
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        LayoutCache cache = new LayoutCache(2);
+        PackingOptions options = new PackingOptions();
+        options.setLayoutCache(cache);
+        double[] a = randomRatios(20, 4);
+        double[] b = randomRatios(20, 5);
+        double[] c = randomRatios(20, 6);
+
+        Packing.packCircles(300, 300, createCircles(a), 100, options);
+        Packing.packCircles(300, 300, createCircles(b), 100, options);
+        Packing.packCircles(300, 300, createCircles(a), 100, options); // hit, a becomes most recent
+        Packing.packCircles(300, 300, createCircles(c), 100, options); // evicts b
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+
+        Packing.packCircles(300, 300, createCircles(a), 100, options);
+        assertEquals(2, cache.getHitCount());
+        Packing.packCircles(300, 300, createCircles(b), 100, options);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testChartOptimizeUsesCache() {
+        LayoutCache cache = new LayoutCache(10);
+        PackingOptions options = new PackingOptions();
+        options.setLayoutCache(cache);
+        double[] ratios = randomRatios(30, 7);
+
+        for (int c = 0; c < 3; c++) {
+            Chart chart = new Chart(500, 500);
+            for (MockPackable circle : createCircles(ratios)) {
+                chart.addPackable(circle);
+            }
+            assertFalse(chart.optimize(100, options).isOverlapsExist());
+        }
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveCapacity() {
+        new LayoutCache(0);
+    }
+}
@@ -0,0 +1,155 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LayoutFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<MockPackable> packCircles(int count) {
+        List<MockPackable> circles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            circles.add(new MockPackable(1 + i % 9));
+        }
+        PackingOptions options = new PackingOptions();
+        options.setSeed(3L);
+        Packing.packCircles(1000, 800, circles, 50, options);
+        return circles;
+    }
+
+    private void assertRoundTrip(LayoutFormat format) throws IOException {
+        // Enough circles to span several write buffers
+        List<MockPackable> circles = packCircles(3000);
+        Path file = folder.newFile().toPath();
+        LayoutFile.write(file, circles, format);
+        assertEquals(LayoutFile.HEADER_BYTES + 3000L * LayoutFile.RECORD_BYTES, Files.size(file));
+
+        LayoutFile layout = LayoutFile.map(file);
+        assertEquals(format, layout.getFormat());
+        assertEquals(3000, layout.size());
+        double[] x = new double[3000];
+        double[] y = new double[3000];
+        double[] r = new double[3000];
+        layout.copyLayout(x, y, r);
+        for (int i = 0; i < circles.size(); i++) {
+            MockPackable circle = circles.get(i);
+            assertEquals(circle.getId(), layout.getId(i));
+            assertEquals(circle.getX(), layout.getX(i), 0);
+            assertEquals(circle.getY(), layout.getY(i), 0);
+            assertEquals(circle.getRadius(), layout.getRadius(i), 0);
+            assertEquals(circle.getRadiusRatio(), layout.getRadiusRatio(i), 0);
+            assertEquals(circle.getX(), x[i], 0);
+            assertEquals(circle.getY(), y[i], 0);
+            assertEquals(circle.getRadius(), r[i], 0);
+        }
+    }
+
+    @Test
+    public void testRowRoundTrip() throws IOException {
+        assertRoundTrip(LayoutFormat.ROW);
+    }
+
+    @Test
+    public void testColumnarRoundTrip() throws IOException {
+        assertRoundTrip(LayoutFormat.COLUMNAR);
+    }
+
+    @Test
+    public void testBatchMatchesListView() throws IOException {
+        double[] ratios = new double[3000];
+        for (int i = 0; i < ratios.length; i++) {
+            ratios[i] = 1 + i % 9;
+        }
+        PackableBatch batch = new PackableBatch(ratios);
+        Packing.packCircles(1000, 800, batch, 50, new PackingOptions());
+
+        for (LayoutFormat format : LayoutFormat.values()) {
+            Path direct = folder.newFile().toPath();
+            Path viewed = folder.newFile().toPath();
+            LayoutFile.write(direct, batch, format);
+            LayoutFile.write(viewed, batch.asList(), format);
+            assertArrayEquals(Files.readAllBytes(viewed), Files.readAllBytes(direct));
+        }
+    }
+
+    @Test
+    public void testCircleBufferMatchesListView() throws IOException {
+        CircleBuffer circles = CircleBuffer.allocateDirect(3000);
+        for (int i = 0; i < circles.size(); i++) {
+            circles.setRadiusRatio(i, 1 + i % 9);
+            circles.setId(i, 7L * i - 1000);
+        }
+        Packing.packCircles(1000, 800, circles, 50, new PackingOptions());
+
+        for (LayoutFormat format : LayoutFormat.values()) {
+            Path direct = folder.newFile().toPath();
+            Path viewed = folder.newFile().toPath();
+            LayoutFile.write(direct, circles, format);
+            LayoutFile.write(viewed, circles.asList(), format);
+            assertArrayEquals(Files.readAllBytes(viewed), Files.readAllBytes(direct));
+        }
+    }
+
+    @Test
+    public void testFileIsLittleEndian() throws IOException {
+        List<MockPackable> circles = packCircles(10);
+        Path file = folder.newFile().toPath();
+        LayoutFile.write(file, circles, LayoutFormat.COLUMNAR);
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(LayoutFile.MAGIC, bytes.getInt(0));
+        assertEquals(LayoutFile.VERSION, bytes.getShort(4));
+        assertEquals(LayoutFormat.COLUMNAR.ordinal(), bytes.getShort(6));
+        assertEquals(10, bytes.getInt(8));
+        // The x column follows the two ID columns
+        assertEquals(circles.get(4).getX(), bytes.getDouble(LayoutFile.HEADER_BYTES + (2 * 10 + 4) * 8), 0);
+    }
+
+    @Test
+    public void testApplyToRestoresLayout() throws IOException {
+        List<MockPackable> circles = packCircles(100);
+        Path file = folder.newFile().toPath();
+        LayoutFile.write(file, circles, LayoutFormat.ROW);
+
+        List<MockPackable> copies = new ArrayList<>();
+        for (MockPackable circle : circles) {
+            copies.add(new MockPackable(circle.getRadiusRatio()));
+        }
+        LayoutFile.map(file).applyTo(copies);
+        for (int i = 0; i < circles.size(); i++) {
+            assertEquals(circles.get(i).getX(), copies.get(i).getX(), 0);
+            assertEquals(circles.get(i).getRadius(), copies.get(i).getRadius(), 0);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[64]);
+        LayoutFile.map(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsTruncatedFiles() throws IOException {
+        Path file = folder.newFile().toPath();
+        LayoutFile.write(file, packCircles(10), LayoutFormat.ROW);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        LayoutFile.map(file);
+    }
+}
@@ -0,0 +1,84 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static jakepalanca.circlepacker.PackingTest.randomRatios;
+import static org.junit.Assert.*;
+
+public class PackableBatchTest {
+
+    @Test
+    public void testBatchMatchesPackables() {
+        double[] ratios = randomRatios(500, 5, 0.1, 1);
+        PackingOptions options = new PackingOptions();
+        options.setSeed(8L);
+
+        List<MockPackable> circles = new ArrayList<>();
+        for (double ratio : ratios) {
+            circles.add(new MockPackable(ratio));
+        }
+        PackingResult<Packable> expected = Packing.packCircles(600, 400, circles, 200, options);
+
+        PackableBatch batch = new PackableBatch(ratios);
+        PackingResult<Packable> result = Packing.packCircles(600, 400, batch, 200, options);
+
+        assertEquals(expected.getIterations(), result.getIterations());
+        assertEquals(expected.isOverlapsExist(), result.isOverlapsExist());
+        for (int i = 0; i < ratios.length; i++) {
+            assertEquals(circles.get(i).getX(), batch.getX()[i], 0);
+            assertEquals(circles.get(i).getY(), batch.getY()[i], 0);
+            assertEquals(circles.get(i).getRadius(), batch.getRadii()[i], 0);
+        }
+    }
+
+    @Test
+    public void testListViewReadsAndWritesArrays() {
+        double[] x = new double[4];
+        double[] y = new double[4];
+        double[] r = new double[4];
+        PackingResult<Packable> result = Packing.packCircles(100, 100, new double[]{1, 2, 3}, x, y, r, 100,
+                new PackingOptions());
+
+        List<Packable> view = result.getPackables();
+        assertEquals(3, view.size());
+        for (int i = 0; i < view.size(); i++) {
+            assertEquals(x[i], view.get(i).getX(), 0);
+            assertEquals(r[i], view.get(i).getRadius(), 0);
+            assertEquals(view.get(i), view.get(i));
+            assertEquals(view.get(i).getId(), view.get(i).getId());
+        }
+        assertNotEquals(view.get(0).getId(), view.get(1).getId());
+        view.get(2).setY(42);
+        assertEquals(42, y[2], 0);
+        assertEquals(0, r[3], 0);
+    }
+
+    @Test
+    public void testBatchUsesLayoutCache() {
+        PackingOptions options = new PackingOptions();
+        options.setLayoutCache(new LayoutCache(2));
+        options.setSeed(2L);
+        PackableBatch first = new PackableBatch(randomRatios(100, 5, 0.1, 1));
+        Packing.packCircles(300, 300, first, 50, options);
+        PackableBatch second = new PackableBatch(randomRatios(100, 5, 0.1, 1));
+        Packing.packCircles(300, 300, second, 50, options);
+
+        assertEquals(1, options.getLayoutCache().getHitCount());
+        assertArrayEquals(first.getX(), second.getX(), 0);
+        assertArrayEquals(first.getRadii(), second.getRadii(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortOutputArray() {
+        new PackableBatch(new double[3], new double[3], new double[2], new double[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveRatio() {
+        Packing.packCircles(100, 100, new PackableBatch(new double[]{1, 0}), 10);
+    }
+}
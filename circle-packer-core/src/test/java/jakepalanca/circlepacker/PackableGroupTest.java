@@ -0,0 +1,150 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PackableGroupTest {
+
+    private static PackableGroup createTree(Random random, int depth, int fanOut) {
+        PackableGroup group = new PackableGroup();
+        for (int i = 0; i < fanOut; i++) {
+            if (depth > 0 && i % 2 == 0) {
+                group.addChild(createTree(random, depth - 1, fanOut));
+            } else {
+                group.addChild(new MockPackable(0.1 + random.nextDouble()));
+            }
+        }
+        return group;
+    }
+
+    private static void assertNested(PackableGroup group) {
+        List<Packable> children = group.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            Packable a = children.get(i);
+            double fromCenter = Math.hypot(a.getX() - group.getX(), a.getY() - group.getY());
+            assertTrue("child outside its group", fromCenter + a.getRadius() <= group.getRadius() * (1 + 1e-6));
+            for (int j = i + 1; j < children.size(); j++) {
+                Packable b = children.get(j);
+                double distance = Math.hypot(a.getX() - b.getX(), a.getY() - b.getY());
+                assertTrue("siblings overlap", distance >= a.getRadius() + b.getRadius());
+            }
+            if (a instanceof PackableGroup) {
+                assertNested((PackableGroup) a);
+            }
+        }
+    }
+
+    @Test
+    public void testNestedLayout() {
+        PackableGroup root = createTree(new Random(1), 3, 6);
+        PackingResult<Packable> result = Packing.packHierarchy(800, 600, root);
+
+        assertSame(root, result.getPackables().get(0));
+        assertEquals(400, root.getX(), 1e-9);
+        assertEquals(300, root.getY(), 1e-9);
+        assertEquals(300, root.getRadius(), 1e-3);
+        assertFalse(result.isOverlapsExist());
+        assertNested(root);
+
+        // Leaf areas are proportional to their ratios at every level
+        double areaPerRatio = Double.NaN;
+        for (Packable node : result.getPackables()) {
+            if (!(node instanceof PackableGroup)) {
+                double ratio = node.getRadius() * node.getRadius() / node.getRadiusRatio();
+                if (Double.isNaN(areaPerRatio)) {
+                    areaPerRatio = ratio;
+                }
+                assertEquals(areaPerRatio, ratio, areaPerRatio * 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        PackableGroup sequential = createTree(new Random(2), 4, 8);
+        PackableGroup parallel = createTree(new Random(2), 4, 8);
+        PackingOptions options = new PackingOptions();
+        options.setSolverMode(SolverMode.PARALLEL);
+        options.setParallelism(4);
+
+        List<Packable> expected = Packing.packHierarchy(1000, 1000, sequential).getPackables();
+        List<Packable> actual = Packing.packHierarchy(1000, 1000, parallel, options).getPackables();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getX(), actual.get(i).getX(), 0);
+            assertEquals(expected.get(i).getY(), actual.get(i).getY(), 0);
+            assertEquals(expected.get(i).getRadius(), actual.get(i).getRadius(), 0);
+        }
+    }
+
+    @Test
+    public void testGroupRatioIsSumOfLeaves() {
+        PackableGroup inner = new PackableGroup();
+        inner.addChild(new MockPackable(1));
+        inner.addChild(new MockPackable(2));
+        PackableGroup root = new PackableGroup();
+        root.addChild(inner);
+        root.addChild(new MockPackable(3));
+        root.setRadiusRatio(1);
+        assertEquals(1, root.getRadiusRatio(), 0);
+
+        Packing.packHierarchy(100, 100, root);
+        assertEquals(6, root.getRadiusRatio(), 0);
+        assertEquals(3, inner.getRadiusRatio(), 0);
+    }
+
+    @Test
+    public void testCancelledHierarchyIsNotPlaced() {
+        for (SolverMode mode : SolverMode.values()) {
+            PackableGroup root = createTree(new Random(3), 3, 6);
+            CancellationToken token = new CancellationToken();
+            token.cancel();
+            PackingOptions options = new PackingOptions();
+            options.setSolverMode(mode);
+            options.setCancellationToken(token);
+
+            PackingResult<Packable> result = Packing.packHierarchy(800, 600, root, options);
+            assertEquals(TerminationReason.CANCELLED, result.getTerminationReason());
+            assertEquals(0, root.getRadius(), 0);
+        }
+    }
+
+    @Test
+    public void testInterruptCancelsParallelHierarchy() {
+        PackableGroup root = createTree(new Random(4), 3, 6);
+        PackingOptions options = new PackingOptions();
+        options.setSolverMode(SolverMode.PARALLEL);
+        options.setParallelism(4);
+
+        Thread.currentThread().interrupt();
+        try {
+            PackingResult<Packable> result = Packing.packHierarchy(800, 600, root, options);
+            assertEquals(TerminationReason.CANCELLED, result.getTerminationReason());
+            assertEquals(0, root.getRadius(), 0);
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyGroup() {
+        PackableGroup root = new PackableGroup();
+        root.addChild(new PackableGroup());
+        Packing.packHierarchy(100, 100, root);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSharedNode() {
+        MockPackable leaf = new MockPackable(1);
+        PackableGroup root = new PackableGroup();
+        root.addChild(leaf);
+        root.addChild(leaf);
+        Packing.packHierarchy(100, 100, root);
+    }
+}
@@ -0,0 +1,84 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static jakepalanca.circlepacker.PackingTest.randomCircles;
+import static org.junit.Assert.*;
+
+public class PackingExecutorTest {
+
+    private static List<Chart> createCharts(int count) {
+        List<Chart> charts = new ArrayList<>();
+        for (int c = 0; c < count; c++) {
+            Chart chart = new Chart(400, 300);
+            // Vary the size so workspaces are both grown and reused
+            for (MockPackable circle : randomCircles(10 + (c * 37) % 150, c)) {
+                chart.addPackable(circle);
+            }
+            charts.add(chart);
+        }
+        return charts;
+    }
+
+    @Test
+    public void testSubmitAll() {
+        List<Chart> charts = createCharts(60);
+        try (PackingExecutor executor = new PackingExecutor(4)) {
+            List<CompletableFuture<PackingResult<Packable>>> futures = executor.submitAll(charts, 200, new PackingOptions());
+            assertEquals(charts.size(), futures.size());
+            for (int i = 0; i < charts.size(); i++) {
+                PackingResult<Packable> result = futures.get(i).join();
+                assertFalse(result.isOverlapsExist());
+                assertEquals(charts.get(i).getPackables().size(), result.getPackables().size());
+                for (Packable packable : result.getPackables()) {
+                    assertTrue(packable.getRadius() > 0);
+                    assertTrue(packable.getX() >= packable.getRadius() && packable.getX() <= 400 - packable.getRadius());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPackAllStreamsEveryResult() {
+        List<Chart> charts = createCharts(40);
+        Map<Chart, PackingResult<Packable>> results = new ConcurrentHashMap<>();
+        ExecutorService service = Executors.newFixedThreadPool(3);
+        try (PackingExecutor executor = new PackingExecutor(service)) {
+            executor.packAll(charts, 200, new PackingOptions(), results::put).join();
+        }
+
+        // The caller's service is left running
+        assertFalse(service.isShutdown());
+        service.shutdown();
+
+        assertEquals(charts.size(), results.size());
+        for (Chart chart : charts) {
+            assertFalse(results.get(chart).isOverlapsExist());
+        }
+    }
+
+    @Test
+    public void testCloseReleasesWorkspaces() {
+        PackingExecutor executor = new PackingExecutor(2);
+        executor.submitAll(createCharts(10), 50, new PackingOptions()).forEach(CompletableFuture::join);
+        assertTrue(executor.pooledWorkspaces() > 0);
+        assertTrue(executor.pooledWorkspaces() <= 2);
+
+        executor.close();
+        assertEquals(0, executor.pooledWorkspaces());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveThreadCount() {
+        new PackingExecutor(0);
+    }
+}
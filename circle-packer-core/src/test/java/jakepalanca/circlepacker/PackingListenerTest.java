@@ -0,0 +1,145 @@
+package jakepalanca.circlepacker;
+
+import jakepalanca.circlepacker.PackingTest.MockPackable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static jakepalanca.circlepacker.PackingTest.randomCircles;
+import static org.junit.Assert.*;
+
+public class PackingListenerTest {
+
+    private static class RecordingListener implements PackingListener {
+        final List<String> calls = new ArrayList<>();
+        final List<Integer> iterations = new ArrayList<>();
+        final int interval;
+        PackingResult<Packable> result;
+
+        RecordingListener(int interval) {
+            this.interval = interval;
+        }
+
+        @Override
+        public void onStart(double width, double height, int circleCount) {
+            calls.add("start:" + circleCount);
+        }
+
+        @Override
+        public void onPhaseEnd(PackingPhase phase, long nanos) {
+            assertTrue(nanos >= 0);
+            calls.add(phase.name());
+        }
+
+        @Override
+        public void onIteration(IterationStats stats) {
+            iterations.add(stats.getIteration());
+        }
+
+        @Override
+        public void onComplete(PackingResult<Packable> result) {
+            calls.add("complete");
+            this.result = result;
+        }
+
+        @Override
+        public int getIterationInterval() {
+            return interval;
+        }
+    }
+
+    @Test
+    public void testCallbacksFollowTheRun() {
+        RecordingListener listener = new RecordingListener(5);
+        PackingOptions options = new PackingOptions();
+        options.setListener(listener);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, randomCircles(300, 16), 23, options);
+
+        assertEquals(List.of("start:300", "INIT", "RELAX", "SHRINK", "CLAMP", "VERIFY", "WRITE_BACK", "complete"),
+                listener.calls);
+        assertSame(result, listener.result);
+        for (int i = 0; i < listener.iterations.size(); i++) {
+            assertEquals(5 * (i + 1), (int) listener.iterations.get(i));
+        }
+        assertEquals(result.getIterations() / 5, listener.iterations.size());
+    }
+
+    @Test
+    public void testFrontChainAndIncrementalUpdates() {
+        RecordingListener listener = new RecordingListener(1);
+        PackingOptions options = new PackingOptions();
+        options.setAlgorithm(PackingAlgorithm.FRONT_CHAIN);
+        options.setListener(listener);
+
+        Chart chart = new Chart(500, 500);
+        for (MockPackable circle : randomCircles(50, 16)) {
+            chart.addPackable(circle);
+        }
+        chart.optimize(100, options);
+        assertEquals("start:50", listener.calls.get(0));
+        assertTrue(listener.iterations.isEmpty());
+
+        listener.calls.clear();
+        chart.addAndRepack(new MockPackable(0.5), 10);
+        assertEquals(List.of("start:51", "INIT", "RELAX", "SHRINK", "VERIFY", "complete"), listener.calls);
+    }
+
+    @Test
+    public void testInvalidInputIsRejectedBeforeStart() {
+        RecordingListener listener = new RecordingListener(1);
+        PackingOptions options = new PackingOptions();
+        options.setListener(listener);
+        List<MockPackable> circles = randomCircles(10, 16);
+        circles.get(5).setRadiusRatio(0);
+
+        assertThrows(IllegalArgumentException.class, () -> Packing.packCircles(500, 500, circles, 20, options));
+        assertTrue(listener.calls.isEmpty());
+    }
+
+    @Test
+    public void testIterationCallbacksCanBeDisabled() {
+        RecordingListener listener = new RecordingListener(0);
+        PackingOptions options = new PackingOptions();
+        options.setListener(listener);
+        Packing.packCircles(500, 500, randomCircles(300, 16), 20, options);
+
+        assertTrue(listener.iterations.isEmpty());
+        assertEquals("complete", listener.calls.get(listener.calls.size() - 1));
+    }
+
+    @Test
+    public void testProgressExposesLiveLayout() {
+        List<MockPackable> circles = randomCircles(200, 16);
+        List<double[]> frames = new ArrayList<>();
+        PackingOptions options = new PackingOptions();
+        options.setListener(new PackingListener() {
+            @Override
+            public void onProgress(PackingProgress progress) {
+                assertEquals(200, progress.getCircleCount());
+                assertEquals(50, progress.getMaxIterations());
+                double[] frame = new double[3 * progress.getCircleCount()];
+                progress.copyLayout(new double[200], new double[200], new double[200]);
+                for (int i = 0; i < progress.getCircleCount(); i++) {
+                    frame[3 * i] = progress.getX(i);
+                    frame[3 * i + 1] = progress.getY(i);
+                    frame[3 * i + 2] = progress.getRadius(i);
+                }
+                frames.add(frame);
+            }
+
+            @Override
+            public int getIterationInterval() {
+                return 10;
+            }
+        });
+        PackingResult<Packable> result = Packing.packCircles(500, 500, circles, 50, options);
+
+        assertEquals(result.getIterations() / 10, frames.size());
+        assertFalse(frames.isEmpty());
+        // Frames are copies taken while relaxation was moving the circles
+        for (double value : frames.get(0)) {
+            assertTrue(Double.isFinite(value));
+        }
+    }
+}
@@ -0,0 +1,696 @@
+package jakepalanca.circlepacker;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class PackingTest {
+
+    /**
+     * Mock Packable class for testing.
+     */
+    public static class MockPackable implements Packable {
+        private UUID id;
+        private double radiusRatio;
+        private double radius;
+        private double x;
+        private double y;
+
+        public MockPackable(double radiusRatio) {
+            this.id = UUID.randomUUID();
+            this.radiusRatio = radiusRatio;
+        }
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public double getRadiusRatio() {
+            return radiusRatio;
+        }
+
+        @Override
+        public void setRadiusRatio(double radiusRatio) {
+            this.radiusRatio = radiusRatio;
+        }
+
+        @Override
+        public double getRadius() {
+            return radius;
+        }
+
+        @Override
+        public void setRadius(double radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public double getX() {
+            return x;
+        }
+
+        @Override
+        public void setX(double x) {
+            this.x = x;
+        }
+
+        @Override
+        public double getY() {
+            return y;
+        }
+
+        @Override
+        public void setY(double y) {
+            this.y = y;
+        }
+    }
+
+    /**
+     * Draws radius ratios uniformly from {@code [min, min + spread)} with a generator of fixed
+     * seed, so layouts built from them are the same on every run.
+     *
+     * @param count  the number of ratios
+     * @param seed   the seed of the generator
+     * @param min    the smallest ratio
+     * @param spread the width of the range of ratios
+     * @return the ratios
+     */
+    static double[] randomRatios(int count, long seed, double min, double spread) {
+        Random random = new Random(seed);
+        double[] ratios = new double[count];
+        for (int i = 0; i < count; i++) {
+            ratios[i] = min + random.nextDouble() * spread;
+        }
+        return ratios;
+    }
+
+    /**
+     * Draws radius ratios between 0.1 and 1 with a generator of fixed seed.
+     *
+     * @param count the number of ratios
+     * @param seed  the seed of the generator
+     * @return the ratios
+     */
+    static double[] randomRatios(int count, long seed) {
+        return randomRatios(count, seed, 0.1, 0.9);
+    }
+
+    /**
+     * Creates circles whose radius ratios come from {@link #randomRatios(int, long, double, double)}.
+     *
+     * @param count  the number of circles
+     * @param seed   the seed of the generator
+     * @param min    the smallest ratio
+     * @param spread the width of the range of ratios
+     * @return the circles
+     */
+    static List<MockPackable> randomCircles(int count, long seed, double min, double spread) {
+        List<MockPackable> circles = new ArrayList<>();
+        for (double ratio : randomRatios(count, seed, min, spread)) {
+            circles.add(new MockPackable(ratio));
+        }
+        return circles;
+    }
+
+    /**
+     * Creates circles with radius ratios between 0.1 and 1 drawn with a generator of fixed seed.
+     *
+     * @param count the number of circles
+     * @param seed  the seed of the generator
+     * @return the circles
+     */
+    static List<MockPackable> randomCircles(int count, long seed) {
+        return randomCircles(count, seed, 0.1, 0.9);
+    }
+
+    @Test
+    public void testSingleBubble() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        bubbles.add(new MockPackable(1.0));
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        assertEquals(1, result.getPackables().size());
+        Packable bubble = result.getPackables().get(0);
+
+        // Bubble should be within bounds
+        assertTrue(bubble.getX() >= bubble.getRadius());
+        assertTrue(bubble.getX() <= 500 - bubble.getRadius());
+        assertTrue(bubble.getY() >= bubble.getRadius());
+        assertTrue(bubble.getY() <= 500 - bubble.getRadius());
+
+        // No overlaps should exist
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testTwoEqualBubbles() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        bubbles.add(new MockPackable(1.0));
+        bubbles.add(new MockPackable(1.0));
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        // Bubbles should not overlap
+        assertFalse(result.isOverlapsExist());
+
+        // Distance between bubbles should be at least sum of radii
+        Packable b1 = result.getPackables().get(0);
+        Packable b2 = result.getPackables().get(1);
+
+        double dx = b2.getX() - b1.getX();
+        double dy = b2.getY() - b1.getY();
+        double distance = Math.hypot(dx, dy);
+        double minDistance = b1.getRadius() + b2.getRadius();
+
+        assertTrue(distance >= minDistance);
+    }
+
+    @Test
+    public void testManySmallBubbles() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            bubbles.add(new MockPackable(0.1));
+        }
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        // Check for overlaps
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testLargeAndSmallBubbles() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        bubbles.add(new MockPackable(1.0));
+        bubbles.add(new MockPackable(0.5));
+        bubbles.add(new MockPackable(0.2));
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        // Check for overlaps
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testIdenticalBubbles() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bubbles.add(new MockPackable(1.0));
+        }
+
+        PackingResult<Packable> result = Packing.packCircles(1000, 1000, bubbles, 1000);
+
+        // Check for overlaps
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testRandomRatios() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            double ratio = 0.1 + Math.random() * 0.9;
+            bubbles.add(new MockPackable(ratio));
+        }
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        // Check for overlaps
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRadiusRatio() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        bubbles.add(new MockPackable(-1.0));
+
+        Packing.packCircles(500, 500, bubbles, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroRectangleDimensions() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        bubbles.add(new MockPackable(1.0));
+
+        Packing.packCircles(0, 0, bubbles, 1000);
+    }
+
+    @Test
+    public void testOverlappingAfterOptimization() {
+        // Create bubbles that are likely to overlap
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bubbles.add(new MockPackable(100)); // Very large bubbles
+        }
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        // Since the bubbles are too large, overlaps may exist
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testAdjustmentsMade() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            bubbles.add(new MockPackable(1.0));
+        }
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        // Ensure adjustments were made during optimization
+        assertTrue(result.getAdjustmentsMade() > 0);
+    }
+
+    @Test
+    public void testTotalOverlapArea() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bubbles.add(new MockPackable(200)); // Large bubbles
+        }
+
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000);
+
+        // Total overlap area should be greater than zero
+        assertTrue(result.getTotalOverlapArea() < 1);
+    }
+
+    @Test
+    public void testAllPairsBroadPhase() {
+        List<MockPackable> bubbles = randomCircles(30, 1);
+
+        PackingOptions options = new PackingOptions();
+        options.setBroadPhase(BroadPhase.ALL_PAIRS);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000, options);
+
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testGridBroadPhaseWithMixedSizes() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        bubbles.add(new MockPackable(500)); // One giant bubble
+        for (int i = 0; i < 500; i++) {
+            bubbles.add(new MockPackable(1.0));
+        }
+
+        PackingOptions options = new PackingOptions();
+        options.setBroadPhase(BroadPhase.GRID);
+        PackingResult<Packable> result = Packing.packCircles(800, 400, bubbles, 1000, options);
+
+        assertFalse(result.isOverlapsExist());
+        for (Packable bubble : result.getPackables()) {
+            assertTrue(bubble.getX() >= bubble.getRadius());
+            assertTrue(bubble.getX() <= 800 - bubble.getRadius());
+            assertTrue(bubble.getY() >= bubble.getRadius());
+            assertTrue(bubble.getY() <= 400 - bubble.getRadius());
+        }
+    }
+
+    @Test
+    public void testParallelSolver() {
+        List<MockPackable> bubbles = randomCircles(2000, 3);
+
+        PackingOptions options = new PackingOptions();
+        options.setSolverMode(SolverMode.PARALLEL);
+        options.setParallelism(4);
+        PackingResult<Packable> result = Packing.packCircles(1000, 1000, bubbles, 200, options);
+
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testParallelSolverIsDeterministic() {
+        int n = 3000;
+        Random rand = new Random(42);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] r = new double[n];
+        for (int i = 0; i < n; i++) {
+            r[i] = 2 + rand.nextDouble() * 8;
+            x[i] = rand.nextDouble() * 1000;
+            y[i] = rand.nextDouble() * 1000;
+        }
+        x[1] = x[0]; // Coincident pair
+        y[1] = y[0];
+
+        double[] x1 = x.clone();
+        double[] y1 = y.clone();
+        double[] x4 = x.clone();
+        double[] y4 = y.clone();
+        try (ParallelSolver single = new ParallelSolver(1, 42); ParallelSolver quad = new ParallelSolver(4, 42)) {
+            for (int sweep = 0; sweep < 20; sweep++) {
+                single.sweep(1000, 1000, x1, y1, r, n, new SweepStats());
+                quad.sweep(1000, 1000, x4, y4, r, n, new SweepStats());
+            }
+        }
+
+        assertArrayEquals(x1, x4, 0);
+        assertArrayEquals(y1, y4, 0);
+    }
+
+    @Test
+    public void testFrontChainPacking() {
+        List<MockPackable> bubbles = randomCircles(1000, 4);
+        bubbles.add(new MockPackable(100));
+
+        PackingOptions options = new PackingOptions();
+        options.setAlgorithm(PackingAlgorithm.FRONT_CHAIN);
+        PackingResult<Packable> result = Packing.packCircles(800, 500, bubbles, 1000, options);
+
+        assertFalse(result.isOverlapsExist());
+        assertEquals(0, result.getTotalOverlapArea(), 0);
+
+        // Radius ratios are preserved exactly: radius squared is proportional to the ratio
+        Packable first = result.getPackables().get(0);
+        double areaPerRatio = first.getRadius() * first.getRadius() / first.getRadiusRatio();
+        for (Packable bubble : result.getPackables()) {
+            assertEquals(areaPerRatio, bubble.getRadius() * bubble.getRadius() / bubble.getRadiusRatio(), areaPerRatio * 1e-9);
+            assertTrue(bubble.getX() >= bubble.getRadius());
+            assertTrue(bubble.getX() <= 800 - bubble.getRadius());
+            assertTrue(bubble.getY() >= bubble.getRadius());
+            assertTrue(bubble.getY() <= 500 - bubble.getRadius());
+        }
+    }
+
+    @Test
+    public void testUniformScaleShrinkKeepsRatios() {
+        List<MockPackable> bubbles = randomCircles(200, 5);
+
+        PackingOptions options = new PackingOptions();
+        options.setShrinkMode(ShrinkMode.UNIFORM_SCALE);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 50, options);
+
+        assertFalse(result.isOverlapsExist());
+        Packable first = result.getPackables().get(0);
+        double areaPerRatio = first.getRadius() * first.getRadius() / first.getRadiusRatio();
+        for (Packable bubble : result.getPackables()) {
+            assertEquals(areaPerRatio, bubble.getRadius() * bubble.getRadius() / bubble.getRadiusRatio(), areaPerRatio * 1e-9);
+        }
+    }
+
+    @Test
+    public void testWarmStartReusesPositions() {
+        List<MockPackable> bubbles = randomCircles(100, 7);
+        PackingOptions options = new PackingOptions();
+        options.setShrinkMode(ShrinkMode.UNIFORM_SCALE);
+        Packing.packCircles(500, 500, bubbles, 1000, options);
+
+        // Proportionally smaller ratios keep the radii, so the previous layout is still overlap free
+        double[] previousX = new double[bubbles.size()];
+        double[] previousY = new double[bubbles.size()];
+        for (int i = 0; i < bubbles.size(); i++) {
+            previousX[i] = bubbles.get(i).getX();
+            previousY[i] = bubbles.get(i).getY();
+            bubbles.get(i).setRadiusRatio(bubbles.get(i).getRadiusRatio() * 0.9);
+        }
+
+        options.setWarmStart(true);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000, options);
+
+        assertFalse(result.isOverlapsExist());
+        assertEquals(1, result.getIterations());
+        for (int i = 0; i < bubbles.size(); i++) {
+            assertEquals(previousX[i], bubbles.get(i).getX(), 0);
+            assertEquals(previousY[i], bubbles.get(i).getY(), 0);
+        }
+
+        // A circle without a previous layout is placed at random and relaxed in
+        bubbles.add(new MockPackable(0.05));
+        result = Packing.packCircles(500, 500, bubbles, 1000, options);
+
+        assertFalse(result.isOverlapsExist());
+        assertTrue(bubbles.get(100).getRadius() > 0);
+    }
+
+    @Test
+    public void testWarmStartKeepsRadiiOfUnchangedRatios() {
+        List<MockPackable> bubbles = randomCircles(100, 7);
+        PackingOptions options = new PackingOptions();
+        options.setShrinkMode(ShrinkMode.UNIFORM_SCALE);
+        options.setSeed(7L);
+        Packing.packCircles(500, 500, bubbles, 1000, options);
+        double[] previousRadii = new double[bubbles.size()];
+        for (int i = 0; i < bubbles.size(); i++) {
+            previousRadii[i] = bubbles.get(i).getRadius();
+        }
+
+        // Shrinking one circle must not resize the others
+        MockPackable changed = bubbles.get(0);
+        changed.setRadiusRatio(changed.getRadiusRatio() / 4);
+        options.setWarmStart(true);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000, options);
+
+        assertFalse(result.isOverlapsExist());
+        assertEquals(previousRadii[0] / 2, changed.getRadius(), 1e-9);
+        for (int i = 1; i < bubbles.size(); i++) {
+            assertEquals(previousRadii[i], bubbles.get(i).getRadius(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testTraceRecordsEverySweep() {
+        List<MockPackable> bubbles = randomCircles(300, 10);
+        PackingOptions options = new PackingOptions();
+        options.setTraceEnabled(true);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 40, options);
+
+        List<IterationStats> trace = result.getTrace();
+        assertEquals(result.getIterations(), trace.size());
+        long previousNanos = -1;
+        for (int i = 0; i < trace.size(); i++) {
+            IterationStats stats = trace.get(i);
+            assertEquals(i + 1, stats.getIteration());
+            assertTrue(stats.getElapsedNanos() >= previousNanos);
+            previousNanos = stats.getElapsedNanos();
+        }
+        IterationStats first = trace.get(0);
+        assertTrue(first.getOverlapCount() > 0);
+        assertTrue(first.getTotalOverlap() > 0);
+        assertTrue(first.getMaxDisplacement() > 0);
+        IterationStats last = trace.get(trace.size() - 1);
+        assertEquals(result.getTerminationReason() == TerminationReason.NO_OVERLAPS, last.getOverlapCount() == 0);
+
+        // Tracing is off by default
+        assertTrue(Packing.packCircles(500, 500, bubbles, 40).getTrace().isEmpty());
+    }
+
+    @Test
+    public void testConvergenceCriteria() {
+        List<MockPackable> bubbles = randomCircles(300, 11);
+
+        PackingOptions options = new PackingOptions();
+        options.setDisplacementTolerance(1e9);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000, options);
+        assertEquals(TerminationReason.DISPLACEMENT_CONVERGED, result.getTerminationReason());
+        assertEquals(1, result.getIterations());
+        assertFalse(result.isOverlapsExist());
+
+        options = new PackingOptions();
+        options.setOverlapTolerance(1e9);
+        result = Packing.packCircles(500, 500, bubbles, 1000, options);
+        assertEquals(TerminationReason.OVERLAP_CONVERGED, result.getTerminationReason());
+        assertEquals(1, result.getIterations());
+
+        options = new PackingOptions();
+        options.setStallSweeps(3);
+        options.setTraceEnabled(true);
+        result = Packing.packCircles(500, 500, bubbles, 100000, options);
+        assertNotEquals(TerminationReason.MAX_ITERATIONS, result.getTerminationReason());
+        if (result.getTerminationReason() == TerminationReason.STALLED) {
+            List<IterationStats> trace = result.getTrace();
+            double best = Double.POSITIVE_INFINITY;
+            for (IterationStats stats : trace.subList(0, trace.size() - 3)) {
+                best = Math.min(best, stats.getTotalOverlap());
+            }
+            for (IterationStats stats : trace.subList(trace.size() - 3, trace.size())) {
+                assertTrue(stats.getTotalOverlap() >= best);
+            }
+        }
+
+        result = Packing.packCircles(500, 500, bubbles, 0);
+        assertEquals(TerminationReason.MAX_ITERATIONS, result.getTerminationReason());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeStallSweeps() {
+        new PackingOptions().setStallSweeps(-1);
+    }
+
+    @Test
+    public void testGridOverlapAreaMatchesAllPairs() {
+        Random rand = new Random(7);
+        int n = 2000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        double[] r = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = rand.nextDouble() * 1000;
+            y[i] = rand.nextDouble() * 500;
+            r[i] = i % 100 == 0 ? 40 : 1 + rand.nextDouble() * 6;
+        }
+
+        SpatialGrid grid = new SpatialGrid();
+        grid.rebuild(x, y, r, n, 1000, 500);
+        double expected = Packing.totalOverlapArea(x, y, r, n);
+        assertTrue(expected > 0);
+        assertEquals(expected, Packing.totalOverlapArea(x, y, r, grid), expected * 1e-9);
+        assertTrue(Packing.anyOverlap(x, y, r, grid));
+
+        // Two separate circles
+        grid.rebuild(new double[]{10, 30}, new double[]{10, 10}, new double[]{5, 5}, 2, 100, 100);
+        assertFalse(Packing.anyOverlap(new double[]{10, 30}, new double[]{10, 10}, new double[]{5, 5}, grid));
+    }
+
+    @Test
+    public void testOverlapAreaNotComputed() {
+        List<MockPackable> bubbles = randomCircles(200, 12);
+        PackingOptions options = new PackingOptions();
+        options.setOverlapAreaComputed(false);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 1000, options);
+
+        assertFalse(result.isOverlapsExist());
+        assertTrue(Double.isNaN(result.getTotalOverlapArea()));
+    }
+
+    private static double[] packSeeded(PackingOptions options) {
+        List<MockPackable> bubbles = randomCircles(400, 11);
+        Packing.packCircles(600, 400, bubbles, 100, options);
+        double[] layout = new double[bubbles.size() * 3];
+        for (int i = 0; i < bubbles.size(); i++) {
+            layout[3 * i] = bubbles.get(i).getX();
+            layout[3 * i + 1] = bubbles.get(i).getY();
+            layout[3 * i + 2] = bubbles.get(i).getRadius();
+        }
+        return layout;
+    }
+
+    @Test
+    public void testSeededRunsAreReproducible() {
+        PackingOptions options = new PackingOptions();
+        options.setSeed(1234L);
+        double[] first = packSeeded(options);
+        assertArrayEquals(first, packSeeded(options), 0);
+
+        options.setSeed(4321L);
+        assertFalse(Arrays.equals(first, packSeeded(options)));
+
+        options.setBroadPhase(BroadPhase.ALL_PAIRS);
+        double[] allPairs = packSeeded(options);
+        assertArrayEquals(allPairs, packSeeded(options), 0);
+
+        options.setSolverMode(SolverMode.PARALLEL);
+        options.setParallelism(1);
+        double[] single = packSeeded(options);
+        options.setParallelism(3);
+        assertArrayEquals(single, packSeeded(options), 0);
+    }
+
+    @Test
+    public void testPhaseTimingsAndCounters() {
+        List<MockPackable> bubbles = randomCircles(500, 15);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 50);
+        PackingMetrics metrics = result.getMetrics();
+
+        long phases = 0;
+        for (PackingPhase phase : PackingPhase.values()) {
+            assertTrue(result.getPhaseNanos(phase) >= 0);
+            phases += result.getPhaseNanos(phase);
+        }
+        assertTrue(result.getPhaseNanos(PackingPhase.RELAX) > 0);
+        assertTrue(phases <= result.getComputationTimeNanos());
+        assertEquals(result.getComputationTimeNanos() / 1_000_000, result.getComputationTime());
+
+        assertTrue(metrics.getPairTests() >= metrics.getOverlapsResolved());
+        assertTrue(metrics.getOverlapsResolved() > 0);
+        assertEquals(metrics.getOverlapsResolved() + metrics.getRadiusAdjustments(), result.getAdjustmentsMade());
+    }
+
+    @Test
+    public void testCountersMatchTrace() {
+        List<MockPackable> bubbles = randomCircles(300, 16);
+        PackingOptions options = new PackingOptions();
+        options.setTraceEnabled(true);
+        options.setSolverMode(SolverMode.PARALLEL);
+        PackingResult<Packable> result = Packing.packCircles(500, 500, bubbles, 30, options);
+
+        long overlaps = 0;
+        for (IterationStats stats : result.getTrace()) {
+            overlaps += stats.getOverlapCount();
+        }
+        assertEquals(overlaps, result.getMetrics().getOverlapsResolved());
+    }
+
+    @Test
+    public void testTimeBudgetCutsRelaxationShort() {
+        List<MockPackable> bubbles = randomCircles(300, 11, 1, 9);
+        PackingOptions options = new PackingOptions();
+        options.setSeed(11L);
+        // Slow every sweep down so that the budget runs out long before relaxation converges,
+        // however fast the machine is
+        options.setListener(new PackingListener() {
+            @Override
+            public void onIteration(IterationStats stats) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        PackingResult<Packable> result = Packing.packCircles(800, 600, bubbles, Duration.ofMillis(100), options);
+
+        assertEquals(TerminationReason.DEADLINE, result.getTerminationReason());
+        assertTrue(result.isCutShort());
+        assertTrue(result.getIterations() <= 5);
+        assertFalse(result.isOverlapsExist());
+        for (MockPackable bubble : bubbles) {
+            assertTrue(bubble.getRadius() > 0);
+            assertTrue(bubble.getX() - bubble.getRadius() >= -1e-9 && bubble.getX() + bubble.getRadius() <= 800 + 1e-9);
+            assertTrue(bubble.getY() - bubble.getRadius() >= -1e-9 && bubble.getY() + bubble.getRadius() <= 600 + 1e-9);
+        }
+    }
+
+    @Test
+    public void testZeroTimeBudgetStillRepairsLayout() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bubbles.add(new MockPackable(1 + i % 5));
+        }
+        PackingResult<Packable> result = Packing.packCircles(300, 300, bubbles, Duration.ZERO);
+
+        assertEquals(TerminationReason.DEADLINE, result.getTerminationReason());
+        assertEquals(0, result.getIterations());
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test
+    public void testGenerousTimeBudgetConverges() {
+        List<MockPackable> bubbles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bubbles.add(new MockPackable(1 + i % 3));
+        }
+        PackingOptions options = new PackingOptions();
+        options.setStallSweeps(50);
+        options.setSeed(17L);
+        PackingResult<Packable> result = Packing.packCircles(800, 600, bubbles, Duration.ofSeconds(30), options);
+
+        assertFalse(result.isCutShort());
+        assertNotEquals(TerminationReason.DEADLINE, result.getTerminationReason());
+        assertFalse(result.isOverlapsExist());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTimeBudget() {
+        Packing.packCircles(100, 100, new ArrayList<MockPackable>(), Duration.ofMillis(-1));
+    }
+}
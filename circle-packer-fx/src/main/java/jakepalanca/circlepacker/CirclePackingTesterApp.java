@@ -1,6 +1,8 @@
 package jakepalanca.circlepacker;
 
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -16,12 +18,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Main application to test the circle packing functionality using JavaFX.
  * The app allows users to input dimensions for a rectangle, add bubbles (circles),
  * and then optimize their packing using a packing algorithm.
  * The user can also test predefined edge cases for circle packing scenarios.
+ * Optimization runs on a background thread and redraws the intermediate layout at a
+ * limited frame rate, so the window stays responsive and a run can be cancelled.
  */
 public class CirclePackingTesterApp extends Application {
 
@@ -115,7 +120,9 @@ public class CirclePackingTesterApp extends Application {
     private TextField radiusRatioField;
     private Button addButton;
     private Button optimizeButton;
+    private Button cancelButton;
     private Button resetButton;
+    private ScrollPane edgeCasesPane;
 
     // Details labels for displaying packing results
     private Label computationTimeLabel;
@@ -135,6 +142,12 @@ public class CirclePackingTesterApp extends Application {
     // Maximum number of iterations for the packing algorithm
     private final int maxIterations = 1000;
 
+    // Minimum time between two intermediate frames, about 30 frames per second
+    private static final long FRAME_INTERVAL_NANOS = 1_000_000_000L / 30;
+
+    // Token of the optimization in progress, or null when none is running
+    private CancellationToken cancellationToken;
+
     /**
      * The main entry point for the application.
      * This method is called by the JavaFX runtime to launch the application.
@@ -250,11 +263,15 @@ public class CirclePackingTesterApp extends Application {
         optimizeButton = new Button("Optimize & Draw");
         optimizeButton.setOnAction(e -> optimizeAndDraw());
 
+        cancelButton = new Button("Cancel");
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> cancelOptimization());
+
         resetButton = new Button("Reset Chart");
         resetButton.setOnAction(e -> resetChart());
 
         controlBox.getChildren().addAll(new Label("Add Bubble:"),
-                radiusRatioField, addButton, radiusListLabel, radiusListView, optimizeButton, resetButton);
+                radiusRatioField, addButton, radiusListLabel, radiusListView, optimizeButton, cancelButton, resetButton);
 
         return controlBox;
     }
@@ -271,7 +288,7 @@ public class CirclePackingTesterApp extends Application {
         rightBox.setAlignment(Pos.TOP_LEFT);
 
         Label edgeCasesLabel = new Label("Edge Cases:");
-        ScrollPane edgeCasesPane = createEdgeCasesPane();
+        edgeCasesPane = createEdgeCasesPane();
 
         Label detailsLabel = new Label("Details:");
         GridPane detailsGrid = createDetailsGrid();
@@ -419,27 +436,90 @@ public class CirclePackingTesterApp extends Application {
     }
 
     /**
-     * Optimizes the placement of bubbles in the chart and draws them on the canvas.
-     * Displays the result of the packing, such as computation time and overlaps.
+     * Starts optimizing the placement of bubbles in the chart on a background thread.
+     * Intermediate layouts are drawn while the optimization runs; once it finishes or is
+     * cancelled, the final layout is drawn and the result details are displayed.
+     * The chart cannot be edited until then.
      */
     private void optimizeAndDraw() {
+        if (cancellationToken != null) {
+            return;
+        }
         if (chart.getPackables().isEmpty()) {
             showAlert("No bubbles to optimize. Please add bubbles or select an edge case.");
             return;
         }
 
-        PackingResult<Packable> result = null;
-        try {
-            result = chart.optimize(maxIterations);
-        } catch (IllegalArgumentException e) {
-            showAlert("Error: " + e.getMessage());
-            return;
+        // Progress reports index circles in the chart's iteration order
+        List<Bubble> bubbles = new ArrayList<>();
+        for (Packable packable : chart.getPackables()) {
+            bubbles.add((Bubble) packable);
         }
+        CancellationToken token = new CancellationToken();
+        PackingOptions options = new PackingOptions();
+        options.setCancellationToken(token);
+        options.setListener(new FrameListener(bubbles));
+
+        Task<PackingResult<Packable>> task = new Task<>() {
+            @Override
+            protected PackingResult<Packable> call() {
+                return chart.optimize(maxIterations, options);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            finishOptimization();
+            PackingResult<Packable> result = task.getValue();
+            clearCanvas();
+            drawPackedCircles(result.getPackables());
+            updateDetails(result);
+        });
+        task.setOnFailed(e -> {
+            finishOptimization();
+            showAlert("Error: " + task.getException().getMessage());
+        });
 
-        clearCanvas();
-        drawPackedCircles(result.getPackables());
+        cancellationToken = token;
+        setEditingDisabled(true);
+        clearDetails();
+
+        Thread thread = new Thread(task, "circle-packer-optimizer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Asks the optimization in progress to stop. It ends after its current sweep and its
+     * layout so far is drawn as the result.
+     */
+    private void cancelOptimization() {
+        if (cancellationToken != null) {
+            cancellationToken.cancel();
+            cancelButton.setDisable(true);
+        }
+    }
 
-        updateDetails(result);
+    /**
+     * Re-enables editing after an optimization has finished, failed or been cancelled.
+     */
+    private void finishOptimization() {
+        cancellationToken = null;
+        setEditingDisabled(false);
+    }
+
+    /**
+     * Disables every control that modifies the chart while an optimization is running,
+     * and enables the cancel button instead.
+     *
+     * @param disabled whether an optimization is running
+     */
+    private void setEditingDisabled(boolean disabled) {
+        addButton.setDisable(disabled);
+        radiusRatioField.setDisable(disabled);
+        radiusListView.setDisable(disabled);
+        optimizeButton.setDisable(disabled);
+        resetButton.setDisable(disabled);
+        edgeCasesPane.setDisable(disabled);
+        cancelButton.setDisable(!disabled);
     }
 
     /**
@@ -450,8 +530,9 @@ public class CirclePackingTesterApp extends Application {
      */
     private void updateDetails(PackingResult<Packable> result) {
         chartDimensionsLabel.setText((int) chart.getWidth() + " x " + (int) chart.getHeight());
-        computationTimeLabel.setText(result.getComputationTime() + " ms");
-        iterationsLabel.setText(String.valueOf(result.getIterations()));
+        computationTimeLabel.setText(String.format("%.2f ms", result.getComputationTimeNanos() / 1e6));
+        iterationsLabel.setText(result.isCancelled()
+                ? result.getIterations() + " (cancelled)" : String.valueOf(result.getIterations()));
         overlapsExistLabel.setText(result.isOverlapsExist() ? "Yes" : "No");
         totalOverlapAreaLabel.setText(String.format("%.2f",
                 result.getTotalOverlapArea()));
@@ -499,18 +580,40 @@ public class CirclePackingTesterApp extends Application {
         GraphicsContext gc = canvas.getGraphicsContext2D();
         gc.clearRect(0, 0, canvasWidth, canvasHeight);
 
+        double scale = chartScale();
+        gc.setStroke(Color.BLACK);
+        gc.strokeRect(chartOffsetX(scale), chartOffsetY(scale), chart.getWidth() * scale, chart.getHeight() * scale);
+    }
+
+    /**
+     * Returns the factor from chart to canvas coordinates, leaving a margin around the chart.
+     *
+     * @return the scale of the chart on the canvas
+     */
+    private double chartScale() {
         double scaleX = (canvasWidth - 50) / chart.getWidth();
         double scaleY = (canvasHeight - 50) / chart.getHeight();
-        double scale = Math.min(scaleX, scaleY);
-        scale = Math.max(scale, 0.1); // Ensure scale is not too small
+        return Math.max(Math.min(scaleX, scaleY), 0.1); // Ensure scale is not too small
+    }
 
-        double scaledWidth = chart.getWidth() * scale;
-        double scaledHeight = chart.getHeight() * scale;
-        double offsetX = (canvasWidth - scaledWidth) / 2;
-        double offsetY = (canvasHeight - scaledHeight) / 2;
+    /**
+     * Returns the canvas x-coordinate of the chart's left edge, which centers the chart.
+     *
+     * @param scale the scale returned by {@link #chartScale()}
+     * @return the horizontal offset of the chart on the canvas
+     */
+    private double chartOffsetX(double scale) {
+        return (canvasWidth - chart.getWidth() * scale) / 2;
+    }
 
-        gc.setStroke(Color.BLACK);
-        gc.strokeRect(offsetX, offsetY, scaledWidth, scaledHeight);
+    /**
+     * Returns the canvas y-coordinate of the chart's top edge, which centers the chart.
+     *
+     * @param scale the scale returned by {@link #chartScale()}
+     * @return the vertical offset of the chart on the canvas
+     */
+    private double chartOffsetY(double scale) {
+        return (canvasHeight - chart.getHeight() * scale) / 2;
     }
 
     /**
@@ -532,30 +635,56 @@ public class CirclePackingTesterApp extends Application {
      */
     private void drawPackedCircles(Collection<Packable> packables) {
         GraphicsContext gc = canvas.getGraphicsContext2D();
-
-        double scaleX = (canvasWidth - 50) / chart.getWidth();
-        double scaleY = (canvasHeight - 50) / chart.getHeight();
-        double scale = Math.min(scaleX, scaleY);
-        scale = Math.max(scale, 0.1); // Ensure scale is not too small
-
-        double scaledWidth = chart.getWidth() * scale;
-        double scaledHeight = chart.getHeight() * scale;
-        double offsetX = (canvasWidth - scaledWidth) / 2;
-        double offsetY = (canvasHeight - scaledHeight) / 2;
+        double scale = chartScale();
+        double offsetX = chartOffsetX(scale);
+        double offsetY = chartOffsetY(scale);
 
         for (Packable p : packables) {
             Bubble bubble = (Bubble) p;
-            Color color = bubble.getColor();
+            drawCircle(gc, bubble.getColor(), bubble.getX() * scale + offsetX, bubble.getY() * scale + offsetY,
+                    bubble.getRadius() * scale);
+        }
+    }
 
-            double scaledX = bubble.getX() * scale + offsetX;
-            double scaledY = bubble.getY() * scale + offsetY;
-            double scaledRadius = bubble.getRadius() * scale;
+    /**
+     * Draws an intermediate layout on the canvas, scaled like the final one.
+     *
+     * @param bubbles the bubbles being packed, providing the colors
+     * @param x       the x-coordinates of the circles, indexed like the bubbles
+     * @param y       the y-coordinates of the circles, indexed like the bubbles
+     * @param r       the radii of the circles, indexed like the bubbles
+     */
+    private void drawLayout(List<Bubble> bubbles, double[] x, double[] y, double[] r) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double scale = chartScale();
+        double offsetX = chartOffsetX(scale);
+        double offsetY = chartOffsetY(scale);
 
-            gc.setFill(color);
-            gc.fillOval(scaledX - scaledRadius, scaledY - scaledRadius, scaledRadius * 2, scaledRadius * 2);
+        for (int i = 0; i < bubbles.size(); i++) {
+            drawCircle(gc, bubbles.get(i).getColor(), x[i] * scale + offsetX, y[i] * scale + offsetY, r[i] * scale);
+        }
+    }
 
+    /**
+     * Fills and outlines one circle in canvas coordinates. Circles smaller than a pixel are
+     * skipped and small ones are not outlined, which keeps frames of large charts cheap.
+     *
+     * @param gc     the graphics context of the canvas
+     * @param color  the fill color
+     * @param x      the x-coordinate of the center on the canvas
+     * @param y      the y-coordinate of the center on the canvas
+     * @param radius the radius on the canvas
+     */
+    private void drawCircle(GraphicsContext gc, Color color, double x, double y, double radius) {
+        if (radius < 0.5) {
+            return;
+        }
+        gc.setFill(color);
+        gc.fillOval(x - radius, y - radius, radius * 2, radius * 2);
+
+        if (radius >= 2) {
             gc.setStroke(Color.BLACK);
-            gc.strokeOval(scaledX - scaledRadius, scaledY - scaledRadius, scaledRadius * 2, scaledRadius * 2);
+            gc.strokeOval(x - radius, y - radius, radius * 2, radius * 2);
         }
     }
 
@@ -637,6 +766,51 @@ public class CirclePackingTesterApp extends Application {
         }
     }
 
+    /**
+     * Listener that copies the layout of the running optimization and posts it to the
+     * JavaFX Application Thread at most once per {@link #FRAME_INTERVAL_NANOS}. A new frame is
+     * only copied once the previous one has been drawn, so a slow canvas drops frames instead
+     * of queuing them.
+     */
+    private class FrameListener implements PackingListener {
+        private final List<Bubble> bubbles;
+        private final AtomicBoolean framePending = new AtomicBoolean();
+        private long lastFrameNanos;
+
+        /**
+         * Constructs a listener drawing the given bubbles.
+         *
+         * @param bubbles the bubbles being packed, in the chart's iteration order
+         */
+        FrameListener(List<Bubble> bubbles) {
+            this.bubbles = bubbles;
+        }
+
+        @Override
+        public void onProgress(PackingProgress progress) {
+            long now = System.nanoTime();
+            if (now - lastFrameNanos < FRAME_INTERVAL_NANOS || !framePending.compareAndSet(false, true)) {
+                return;
+            }
+            lastFrameNanos = now;
+
+            int n = progress.getCircleCount();
+            double[] x = new double[n];
+            double[] y = new double[n];
+            double[] r = new double[n];
+            progress.copyLayout(x, y, r);
+            int iteration = progress.getStats().getIteration();
+            int iterationLimit = progress.getMaxIterations();
+
+            Platform.runLater(() -> {
+                framePending.set(false);
+                clearCanvas();
+                drawLayout(bubbles, x, y, r);
+                iterationsLabel.setText(iteration + " / " + iterationLimit);
+            });
+        }
+    }
+
     /**
      * Custom ListCell for displaying a bubble in the ListView. Each ListCell contains
      * the bubble's radius ratio and a delete button to remove it from the chart.